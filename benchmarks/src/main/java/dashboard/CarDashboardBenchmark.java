@@ -0,0 +1,85 @@
+package dashboard;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of the whole ingestion of a frame: parsing, validation, history update and display.
+ */
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class CarDashboardBenchmark {
+
+    @Param({"VALID_DRIVING", "NOISY"})
+    private FrameCorpus corpus;
+
+    @Param({"5", "500"})
+    private int historyLength;
+
+    @Param({"false", "true"})
+    private boolean instrumented;
+
+    /**
+     * Whether the frames are decoded into pooled instances, compare the allocation rates with -prof gc.
+     */
+    @Param({"false", "true"})
+    private boolean pooled;
+
+    private String[] frames;
+    private String batch;
+    private CarDisplay carDisplay;
+    private int index;
+
+    @Setup
+    public void setUp(Blackhole blackhole) {
+        List<String> corpusFrames = corpus.frames();
+        frames = corpusFrames.toArray(new String[0]);
+        batch = String.join("\n", corpusFrames);
+        carDisplay = new CarDisplay(
+                RuleEngine.defaultRules(true),
+                new HistoryBuffer(historyLength),
+                blackhole::consume,
+                null,
+                instrumented ? new DashboardMetrics() : null,
+                pooled
+        );
+    }
+
+    @Benchmark
+    public Object carDashboard() {
+        try {
+            carDisplay.carDashboard(frames[nextIndex()]);
+            return null;
+        } catch (RuntimeException e) {
+            return e;
+        }
+    }
+
+    @Benchmark
+    public Object tryCarDashboard() {
+        try {
+            return carDisplay.tryCarDashboard(frames[nextIndex()]);
+        } catch (RuntimeException e) {
+            return e;
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(FrameCorpus.SIZE)
+    public BatchResult carDashboardLines() {
+        return carDisplay.carDashboardLines(batch);
+    }
+
+    private int nextIndex() {
+        int current = index;
+        index = current + 1 == frames.length ? 0 : current + 1;
+        return current;
+    }
+}
@@ -0,0 +1,37 @@
+package dashboard;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Time to the first valid display in a fresh JVM, i.e. loading and initializing the classes and running the cold
+ * paths of a default {@link CarDisplay} printing to the console. Every fork measures a single frame.
+ * <p>
+ * The target is a first frame within 25 ms with the main artifact installed with the {@code startup} profile, and
+ * within 15 ms when the JVM also maps an application class data sharing archive. The archive shall be trained on
+ * the classpath of the benchmarks:
+ * <pre>
+ *     mvn -B -Pstartup install -DskipTests
+ *     mvn -B -f benchmarks/pom.xml package
+ *     java -XX:ArchiveClassesAtExit=benchmarks/target/first-frame.jsa -cp benchmarks/target/benchmarks.jar \
+ *             dashboard.TrainingRun
+ *     java -jar benchmarks/target/benchmarks.jar FirstFrameBenchmark \
+ *             -jvmArgsAppend -XX:SharedArchiveFile=benchmarks/target/first-frame.jsa
+ * </pre>
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 0)
+@Measurement(iterations = 1)
+@Fork(20)
+@State(Scope.Benchmark)
+public class FirstFrameBenchmark {
+
+    @Benchmark
+    public CarDisplay firstValidDisplay() {
+        CarDisplay carDisplay = new CarDisplay(true);
+        carDisplay.carDashboard("10|2000|1.13|D|true|false|true");
+        return carDisplay;
+    }
+}
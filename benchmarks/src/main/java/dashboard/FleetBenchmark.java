@@ -0,0 +1,53 @@
+package dashboard;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput of the fleet engine from submitting the frames of many vehicles until every frame has been
+ * processed, to see how it scales with the number of shards.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class FleetBenchmark {
+
+    private static final int VEHICLES = 10_000;
+    private static final int FRAMES_PER_VEHICLE = 20;
+
+    @Param({"1", "2", "4"})
+    private int shardCount;
+
+    private String[] vehicleIds;
+    private String[] frames;
+
+    @Setup
+    public void setUp() {
+        vehicleIds = new String[VEHICLES];
+        for (int i = 0; i < VEHICLES; i++) {
+            vehicleIds[i] = "vehicle-" + i;
+        }
+        List<String> corpusFrames = FrameCorpus.VALID_DRIVING.frames();
+        frames = corpusFrames.subList(0, FRAMES_PER_VEHICLE).toArray(new String[0]);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(VEHICLES * FRAMES_PER_VEHICLE)
+    public void submit() throws InterruptedException {
+        // the blackhole is not thread-safe, the shards render to nowhere
+        try (FleetEngine fleetEngine = new FleetEngine(shardCount, FleetEngine.DEFAULT_QUEUE_CAPACITY,
+                vehicleId -> new CarDisplay(true, CarDisplay.DEFAULT_HISTORY_MOVING_WINDOW_LENGTH, dashboardData -> {
+                }))) {
+            for (String frame : frames) {
+                for (String vehicleId : vehicleIds) {
+                    fleetEngine.submit(vehicleId, frame);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,77 @@
+package dashboard;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Realistic frame sequences for the benchmarks.
+ */
+public enum FrameCorpus {
+    /**
+     * Accelerating to 200 km/h and braking to standstill in drive, every frame is valid.
+     */
+    VALID_DRIVING {
+        @Override
+        String frame(int index) {
+            return drivingFrame(index);
+        }
+    },
+    /**
+     * The same drive with every eighth frame being an outlier, out of range or malformed.
+     */
+    NOISY {
+        @Override
+        String frame(int index) {
+            if (index % 8 != 7) {
+                return drivingFrame(index);
+            }
+            int speed = drivingSpeed(index);
+            switch ((index / 8) % 4) {
+                case 0:
+                    return (speed + 60) + "|3000|1.2|D|true|false|true";
+                case 1:
+                    return speed + "|9000|1.2|D|true|false|true";
+                case 2:
+                    return speed + "|30O0|1.2|D|true|false|true";
+                default:
+                    return "400|3000|1.2|D|true|false|true";
+            }
+        }
+    };
+
+    static final int SIZE = 200;
+
+    private static final String[] GEAR_CODES = {"P", "R", "N", "D", "1", "2", "3", "4", "5", "6",
+            "p", "r", "n", "d"};
+
+    abstract String frame(int index);
+
+    /**
+     * @return the frames of a full drive, the last one being continuous with the first one
+     */
+    List<String> frames() {
+        List<String> frames = new ArrayList<>(SIZE);
+        for (int i = 0; i < SIZE; i++) {
+            frames.add(frame(i));
+        }
+        return frames;
+    }
+
+    /**
+     * @return every gear code, in both cases
+     */
+    static String[] gearCodes() {
+        return GEAR_CODES.clone();
+    }
+
+    private static int drivingSpeed(int index) {
+        int step = index % SIZE;
+        return step < SIZE / 2 ? step * 2 : (SIZE - step) * 2;
+    }
+
+    private static String drivingFrame(int index) {
+        int speed = drivingSpeed(index);
+        float acceleration = index % SIZE < SIZE / 2 ? 1.2f : -1.2f;
+        return speed + "|" + (1500 + speed * 10) + "|" + acceleration + "|D|true|false|true";
+    }
+}
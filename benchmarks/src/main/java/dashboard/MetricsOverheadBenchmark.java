@@ -0,0 +1,49 @@
+package dashboard;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of the instrumentation of a valid frame passed to {@link CarDisplay#tryCarDashboard(String)}, i.e. the
+ * exact sequence of recording steps of the instrumented display, in isolation. Comparing the instrumented and the
+ * plain display in {@link CarDashboardBenchmark} cannot resolve a few percent, the results of its forks scatter
+ * more than that; this benchmark measures the added nanoseconds per frame with an error well below a nanosecond,
+ * to be compared with the time per frame of the plain display.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(3)
+@State(Scope.Thread)
+public class MetricsOverheadBenchmark {
+
+    @Param({"64", "256"})
+    private int latencySamplingInterval;
+
+    private DashboardMetrics.Recorder recorder;
+
+    @Setup
+    public void setUp() {
+        recorder = new DashboardMetrics(latencySamplingInterval).newRecorder();
+    }
+
+    /**
+     * The overhead of the benchmark itself, to be subtracted.
+     */
+    @Benchmark
+    public void baseline() {
+    }
+
+    @Benchmark
+    public void validFrame() {
+        long start = recorder.start(DashboardMetrics.PARSE);
+        recorder.stop(DashboardMetrics.PARSE, start);
+        start = recorder.start(DashboardMetrics.VALIDATION);
+        recorder.stop(DashboardMetrics.VALIDATION, start);
+        recorder.recordFrame(ValidationRule.NONE);
+        start = recorder.start(DashboardMetrics.DISPLAY);
+        recorder.stop(DashboardMetrics.DISPLAY, start);
+    }
+}
@@ -0,0 +1,85 @@
+package dashboard;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of turning a textual frame into values.
+ */
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class ParseBenchmark {
+
+    private String[] frames;
+    private byte[][] frameBytes;
+    private String[] gearCodes;
+    private final FrameParser frameParser = new FrameParser();
+    private final DashboardData target = new DashboardData();
+    private final LazyDashboardData lazyTarget = new LazyDashboardData();
+    private int index;
+
+    @Setup
+    public void setUp() {
+        List<String> corpus = FrameCorpus.VALID_DRIVING.frames();
+        frames = corpus.toArray(new String[0]);
+        frameBytes = new byte[frames.length][];
+        for (int i = 0; i < frames.length; i++) {
+            frameBytes[i] = frames[i].getBytes(StandardCharsets.US_ASCII);
+        }
+        gearCodes = FrameCorpus.gearCodes();
+    }
+
+    @Benchmark
+    public DashboardData fromString() {
+        return DashboardData.fromString(frames[nextIndex(frames.length)]);
+    }
+
+    @Benchmark
+    public DashboardData parseIntoReusedTarget() {
+        FrameParser.parse(frames[nextIndex(frames.length)], target);
+        return target;
+    }
+
+    @Benchmark
+    public DashboardData parseBytesIntoReusedTarget() {
+        byte[] frame = frameBytes[nextIndex(frameBytes.length)];
+        frameParser.parse(frame, 0, frame.length, target);
+        return target;
+    }
+
+    /**
+     * A consumer of a single field parsing the whole frame, the baseline of {@link #lazySpeedOnly()}.
+     */
+    @Benchmark
+    public int eagerSpeedOnly() {
+        FrameParser.parse(frames[nextIndex(frames.length)], target);
+        return target.getSpeed();
+    }
+
+    @Benchmark
+    public int lazySpeedOnly() {
+        lazyTarget.wrap(frames[nextIndex(frames.length)]);
+        return lazyTarget.getSpeed();
+    }
+
+    @Benchmark
+    public void gearByValue(Blackhole blackhole) {
+        for (String gearCode : gearCodes) {
+            blackhole.consume(Gear.byValue(gearCode));
+        }
+    }
+
+    private int nextIndex(int length) {
+        int current = index;
+        index = current + 1 == length ? 0 : current + 1;
+        return current;
+    }
+}
@@ -0,0 +1,89 @@
+package dashboard;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of the plausibility rules and of the history of parsed values.
+ */
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class ValidationBenchmark {
+
+    private static final int COLUMN_FRAMES = 1 << 20;
+
+    @Param({"5", "500"})
+    private int historyLength;
+
+    private DashboardData[] values;
+    private RuleEngine ruleEngine;
+    private CarDisplay carDisplay;
+    private HistoryBuffer historyBuffer;
+    private FrameColumns columns;
+    private int[] violations;
+    private int index;
+
+    @Setup
+    public void setUp() {
+        List<String> frames = FrameCorpus.VALID_DRIVING.frames();
+        values = new DashboardData[frames.size()];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = DashboardData.fromString(frames.get(i));
+        }
+        ruleEngine = RuleEngine.defaultRules(true);
+        carDisplay = new CarDisplay(true, historyLength, dashboardData -> { });
+        historyBuffer = new HistoryBuffer(historyLength);
+        for (DashboardData value : values) {
+            carDisplay.tryCarDashboard(value.getSpeed() + "|" + value.getRpm() + "|" + value.getAcceleration() +
+                    "|D|true|false|true");
+            historyBuffer.add(value);
+        }
+        columns = new FrameColumns(COLUMN_FRAMES);
+        for (int i = 0; i < COLUMN_FRAMES; i++) {
+            columns.add(values[i % values.length]);
+        }
+        violations = new int[COLUMN_FRAMES];
+    }
+
+    @Benchmark
+    public int ruleEngine() {
+        return ruleEngine.evaluate(values[nextIndex()]);
+    }
+
+    /**
+     * The same rules as {@link #ruleEngine()} over a million frames stored in columns, per frame.
+     */
+    @Benchmark
+    @OperationsPerInvocation(COLUMN_FRAMES)
+    public int ruleEngineColumns() {
+        return ruleEngine.evaluate(columns, 0, COLUMN_FRAMES, violations);
+    }
+
+    @Benchmark
+    public int validateWithHistory() {
+        return carDisplay.validate(values[nextIndex()]);
+    }
+
+    @Benchmark
+    public DashboardData updateHistory() {
+        historyBuffer.add(values[nextIndex()]);
+        return historyBuffer.latest();
+    }
+
+    @Benchmark
+    public List<DashboardData> historySnapshot() {
+        return historyBuffer.snapshot();
+    }
+
+    private int nextIndex() {
+        int current = index;
+        index = current + 1 == values.length ? 0 : current + 1;
+        return current;
+    }
+}
@@ -0,0 +1,218 @@
+package dashboard;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+
+/**
+ * Validates archives of newline-separated textual frames with the rules of a {@link CarDisplay}, e.g. to re-run
+ * the validation of recorded sessions when the rules change. The outcome of every frame is exactly the one of
+ * feeding the files to {@link CarDisplay#carDashboardLines(CharSequence)} of a single display.
+ * <p>
+ * The files are memory-mapped and split into chunks at line boundaries. The chunks are parsed and checked by the
+ * rules which only depend on the frame itself in parallel on a {@link ForkJoinPool}, into {@link FrameColumns}.
+ * The rules comparing a frame to the previously accepted ones cannot be split the same way: whether a frame is
+ * accepted depends on the rolling statistics of the history, which depend on every frame accepted before, to the
+ * last bit of their floating point sums, so warming the history of a chunk up from the preceding frames only
+ * approximates them. Those rules are evaluated on the calling thread instead, chunk by chunk in file order, over
+ * the already parsed columns, which takes a small fraction of the parsing. At most two chunks per worker thread
+ * are in flight, so archives of any size are processed in bounded memory.
+ */
+public final class ArchiveProcessor {
+
+    public static final int DEFAULT_CHUNK_SIZE = 4 << 20;
+
+    private static final byte LINE_FEED = '\n';
+
+    private final RuleEngine ruleEngine;
+    private final int historyLength;
+    private final ForkJoinPool pool;
+    private final int chunkSize;
+
+    /**
+     * Creates a processor using the common pool.
+     * @param ruleEngine the rules to validate the frames with
+     * @param historyLength the length of the history window of the display
+     */
+    public ArchiveProcessor(@NotNull RuleEngine ruleEngine, int historyLength) {
+        this(ruleEngine, historyLength, ForkJoinPool.commonPool(), DEFAULT_CHUNK_SIZE);
+    }
+
+    /**
+     * @param ruleEngine the rules to validate the frames with
+     * @param historyLength the length of the history window of the display
+     * @param pool the pool parsing the chunks
+     * @param chunkSize the approximate number of bytes of a chunk, each chunk holds whole lines
+     */
+    public ArchiveProcessor(@NotNull RuleEngine ruleEngine,
+                            int historyLength,
+                            @NotNull ForkJoinPool pool,
+                            int chunkSize)
+    {
+        if (historyLength < 1) {
+            throw new IllegalArgumentException("The length of the history shall be positive.");
+        }
+        if (chunkSize < 1) {
+            throw new IllegalArgumentException("The size of the chunks shall be positive.");
+        }
+        this.ruleEngine = ruleEngine;
+        this.historyLength = historyLength;
+        this.pool = pool;
+        this.chunkSize = chunkSize;
+    }
+
+    /**
+     * Validates a single file.
+     * @param file the file of newline-separated frames
+     * @return the summary of the validation
+     * @throws IOException if the file cannot be read
+     */
+    public @NotNull ArchiveResult process(@NotNull Path file) throws IOException {
+        return process(List.of(file), null);
+    }
+
+    /**
+     * Validates the frames of the files as a single session, the history carrying over from one file to the next.
+     * @param files the files of newline-separated frames in chronological order
+     * @param frameListener notified about the outcome of every well-formed frame in order on the calling thread,
+     *                      with an instance reused for every frame, or null
+     * @return the summary of the validation
+     * @throws IOException if a file cannot be read
+     */
+    public @NotNull ArchiveResult process(@NotNull List<Path> files, @Nullable FrameListener frameListener)
+            throws IOException
+    {
+        ArchiveResult result = new ArchiveResult();
+        HistoryBuffer history = new HistoryBuffer(historyLength);
+        DashboardData dashboardData = new DashboardData();
+        Deque<ForkJoinTask<Chunk>> inFlight = new ArrayDeque<>();
+        int maxInFlight = 2 * pool.getParallelism();
+        ByteBuffer probe = ByteBuffer.allocate(256);
+        try {
+            for (Path file : files) {
+                try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+                    long size = channel.size();
+                    long start = 0;
+                    while (start < size) {
+                        long end = chunkEnd(channel, start, size, probe);
+                        MappedByteBuffer region = channel.map(FileChannel.MapMode.READ_ONLY, start, end - start);
+                        inFlight.addLast(pool.submit(() -> parse(region)));
+                        if (inFlight.size() >= maxInFlight) {
+                            validateAgainstHistory(inFlight.removeFirst().join(), history, dashboardData, result,
+                                    frameListener);
+                        }
+                        start = end;
+                    }
+                }
+            }
+            while (!inFlight.isEmpty()) {
+                validateAgainstHistory(inFlight.removeFirst().join(), history, dashboardData, result, frameListener);
+            }
+        } finally {
+            for (ForkJoinTask<Chunk> task : inFlight) {
+                task.cancel(false);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * @return the position after the line feed terminating the chunk starting at the given position, or the end
+     * of the file
+     */
+    private long chunkEnd(@NotNull FileChannel channel, long start, long size, @NotNull ByteBuffer probe)
+            throws IOException
+    {
+        long position = start + chunkSize;
+        while (position < size) {
+            probe.clear();
+            int read = channel.read(probe, position);
+            if (read < 0) {
+                break;
+            }
+            for (int i = 0; i < read; i++) {
+                if (probe.get(i) == LINE_FEED) {
+                    return position + i + 1;
+                }
+            }
+            position += read;
+        }
+        return size;
+    }
+
+    /**
+     * Parses the frames of a chunk and evaluates the rules only depending on the frames themselves.
+     */
+    private @NotNull Chunk parse(@NotNull MappedByteBuffer region) {
+        FrameParser.ByteFrame lines = new FrameParser.ByteFrame();
+        int end = region.limit();
+        lines.wrap(region, 0, end);
+        FrameColumns frames = new FrameColumns(FrameParser.countLines(lines, 0, end));
+        DashboardData dashboardData = new DashboardData();
+        int malformedCount = 0;
+        for (int lineStart = 0; lineStart < end; ) {
+            int lineEnd = FrameParser.nextLineEnd(lines, lineStart, end);
+            try {
+                FrameParser.parse(lines, lineStart, FrameParser.trimLineEnd(lines, lineStart, lineEnd), dashboardData);
+                frames.add(dashboardData);
+            } catch (RuntimeException e) {
+                malformedCount++;
+            }
+            lineStart = lineEnd + 1;
+        }
+        int[] violations = new int[frames.size()];
+        ruleEngine.evaluate(frames, 0, frames.size(), violations);
+        return new Chunk(frames, violations, malformedCount);
+    }
+
+    /**
+     * Completes the validation of a chunk in file order, the same way as {@link CarDisplay#validate(DashboardData)}
+     * followed by storing the accepted values.
+     */
+    private void validateAgainstHistory(@NotNull Chunk chunk,
+                                        @NotNull HistoryBuffer history,
+                                        @NotNull DashboardData dashboardData,
+                                        @NotNull ArchiveResult result,
+                                        @Nullable FrameListener frameListener)
+    {
+        result.addMalformed(chunk.malformedCount);
+        for (int i = 0; i < chunk.frames.size(); i++) {
+            chunk.frames.copy(i, dashboardData);
+            int violations = chunk.violations[i];
+            if (!history.isEmpty()) {
+                violations |= ruleEngine.evaluateAgainstHistory(dashboardData, history);
+            }
+            if (violations == ValidationRule.NONE) {
+                history.add(dashboardData);
+            }
+            result.add(violations);
+            if (frameListener != null) {
+                frameListener.onFrame(dashboardData, violations);
+            }
+        }
+    }
+
+    private static final class Chunk {
+
+        final FrameColumns frames;
+        final int[] violations;
+        final int malformedCount;
+
+        Chunk(FrameColumns frames, int[] violations, int malformedCount) {
+            this.frames = frames;
+            this.violations = violations;
+            this.malformedCount = malformedCount;
+        }
+    }
+}
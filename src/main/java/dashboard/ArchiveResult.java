@@ -0,0 +1,65 @@
+package dashboard;
+
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Summary of validating an archive of frames.
+ */
+public final class ArchiveResult {
+
+    private static final ValidationRule[] RULES = ValidationRule.values();
+
+    private long frameCount;
+    private long acceptedCount;
+    private long malformedCount;
+    private final long[] violationCounts = new long[RULES.length];
+
+    void add(int violations) {
+        frameCount++;
+        if (violations == ValidationRule.NONE) {
+            acceptedCount++;
+            return;
+        }
+        for (int remaining = violations; remaining != 0; remaining &= remaining - 1) {
+            violationCounts[Integer.numberOfTrailingZeros(remaining)]++;
+        }
+    }
+
+    void addMalformed(int count) {
+        frameCount += count;
+        malformedCount += count;
+    }
+
+    /**
+     * @return the number of frames, including the malformed ones
+     */
+    public long getFrameCount() {
+        return frameCount;
+    }
+
+    public long getAcceptedCount() {
+        return acceptedCount;
+    }
+
+    /**
+     * @return the number of frames which were malformed or violated a plausibility rule
+     */
+    public long getRejectedCount() {
+        return frameCount - acceptedCount;
+    }
+
+    /**
+     * @return the number of frames which could not be parsed
+     */
+    public long getMalformedCount() {
+        return malformedCount;
+    }
+
+    /**
+     * @param rule the plausibility rule
+     * @return the number of frames violating the rule
+     */
+    public long getViolationCount(@NotNull ValidationRule rule) {
+        return violationCounts[rule.ordinal()];
+    }
+}
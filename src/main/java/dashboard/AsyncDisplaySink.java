@@ -0,0 +1,189 @@
+package dashboard;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Decouples the ingestion from a slow display unit. The values are handed over to a dedicated render thread
+ * through a lock-free single slot mailbox, so the ingesting thread never blocks. If the renderer falls behind,
+ * only the latest values are rendered and the skipped ones are counted as coalesced.
+ * <p>
+ * The values are copied into buffers of the sink, triple buffered between the ingesting thread, the mailbox and
+ * the render thread, so the sink does not keep a reference to the passed instance, which a pooled display
+ * recycles, and copies without allocating. The delegate shall not keep a reference to the rendered instance
+ * either, as it is reused once the delegate returns.
+ */
+public final class AsyncDisplaySink implements DisplaySink, AutoCloseable {
+
+    private final DisplaySink delegate;
+    private final long minRenderIntervalNanos;
+    /**
+     * Flag of the mailbox state marking that the buffer in the mailbox holds values not taken by the renderer.
+     */
+    private static final int PENDING = 4;
+    private static final int BUFFER_INDEX_MASK = 3;
+
+    private final DashboardData[] buffers = {new DashboardData(), new DashboardData(), new DashboardData()};
+    /**
+     * The index of the buffer in the mailbox, combined with the {@link #PENDING} flag. The ingesting thread and
+     * the render thread each own one of the other two buffers, and exchange it with the one in the mailbox.
+     */
+    private final AtomicInteger mailbox = new AtomicInteger(1);
+    private int writeIndex = 0;
+    private int readIndex = 2;
+    private final Thread renderThread;
+    private volatile boolean closed;
+
+    private final LongAdder submitted = new LongAdder();
+    private final LongAdder rendered = new LongAdder();
+    private final LongAdder coalesced = new LongAdder();
+    private final LongAdder dropped = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+
+    /**
+     * Creates a sink rendering as fast as the delegate allows.
+     * @param delegate the display unit called on the render thread
+     */
+    public AsyncDisplaySink(@NotNull DisplaySink delegate) {
+        this(delegate, 0);
+    }
+
+    /**
+     * Creates a sink rendering at most with the given frequency.
+     * @param delegate the display unit called on the render thread
+     * @param maxRendersPerSecond the maximum refresh rate, or 0 for no limit
+     */
+    public AsyncDisplaySink(@NotNull DisplaySink delegate, int maxRendersPerSecond) {
+        if (maxRendersPerSecond < 0) {
+            throw new IllegalArgumentException("The refresh rate shall not be negative.");
+        }
+        this.delegate = delegate;
+        minRenderIntervalNanos = maxRendersPerSecond == 0 ? 0 : TimeUnit.SECONDS.toNanos(1) / maxRendersPerSecond;
+        renderThread = new Thread(this::renderLoop, "display-renderer");
+        renderThread.setDaemon(true);
+        renderThread.start();
+    }
+
+    @Override
+    public void render(@NotNull DashboardData dashboardData) {
+        if (closed) {
+            dropped.increment();
+            return;
+        }
+        submitted.increment();
+        copy(dashboardData, buffers[writeIndex]);
+        int previous = mailbox.getAndSet(writeIndex | PENDING);
+        writeIndex = previous & BUFFER_INDEX_MASK;
+        if ((previous & PENDING) == 0) {
+            LockSupport.unpark(renderThread);
+        } else {
+            coalesced.increment();
+        }
+    }
+
+    /**
+     * Renders the pending values, if any, and stops the render thread.
+     */
+    @Override
+    public void close() {
+        closed = true;
+        LockSupport.unpark(renderThread);
+        boolean interrupted = false;
+        while (renderThread.isAlive()) {
+            try {
+                renderThread.join();
+            } catch (InterruptedException e) {
+                interrupted = true;
+            }
+        }
+        // values published concurrently with closing are not rendered any more
+        if ((mailbox.getAndUpdate(state -> state & BUFFER_INDEX_MASK) & PENDING) != 0) {
+            dropped.increment();
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void renderLoop() {
+        long nextRenderTime = System.nanoTime();
+        while (true) {
+            if ((mailbox.get() & PENDING) == 0) {
+                if (closed) {
+                    return;
+                }
+                LockSupport.park(this);
+                continue;
+            }
+            // the mailbox is only emptied by this thread, so the values are still pending
+            readIndex = mailbox.getAndSet(readIndex) & BUFFER_INDEX_MASK;
+
+            try {
+                delegate.render(buffers[readIndex]);
+                rendered.increment();
+            } catch (RuntimeException e) {
+                failed.increment();
+            }
+
+            if (minRenderIntervalNanos > 0) {
+                nextRenderTime += minRenderIntervalNanos;
+                long now = System.nanoTime();
+                if (nextRenderTime - now < 0) {
+                    nextRenderTime = now;
+                }
+                while (!closed && nextRenderTime - System.nanoTime() > 0) {
+                    LockSupport.parkNanos(this, nextRenderTime - System.nanoTime());
+                }
+            }
+        }
+    }
+
+    private static void copy(@NotNull DashboardData source, @NotNull DashboardData target) {
+        target.setSpeed(source.getSpeed());
+        target.setRpm(source.getRpm());
+        target.setAcceleration(source.getAcceleration());
+        target.setGear(source.getGear());
+        target.setHeadlights(source.isHeadlights());
+        target.setLowOilLevel(source.isLowOilLevel());
+        target.setEngineStarted(source.isEngineStarted());
+    }
+
+    /**
+     * @return the number of values passed to the sink before closing it
+     */
+    public long getSubmittedCount() {
+        return submitted.sum();
+    }
+
+    /**
+     * @return the number of values rendered successfully by the delegate
+     */
+    public long getRenderedCount() {
+        return rendered.sum();
+    }
+
+    /**
+     * @return the number of values replaced by newer ones before the renderer could take them
+     */
+    public long getCoalescedCount() {
+        return coalesced.sum();
+    }
+
+    /**
+     * @return the number of values which were not rendered because the sink had been closed
+     */
+    public long getDroppedCount() {
+        return dropped.sum();
+    }
+
+    /**
+     * @return the number of values the delegate failed to render
+     */
+    public long getFailedCount() {
+        return failed.sum();
+    }
+}
@@ -0,0 +1,70 @@
+package dashboard;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * The outcome of every frame of a batch, in input order. A frame is either accepted or rejected, either because
+ * it is malformed or because it violates plausibility rules.
+ */
+public final class BatchResult {
+
+    private final RuntimeException[] parseFailures;
+    private final int[] violations;
+    private int rejectedCount;
+
+    BatchResult(int size) {
+        parseFailures = new RuntimeException[size];
+        violations = new int[size];
+    }
+
+    void reject(int index, @NotNull RuntimeException reason) {
+        parseFailures[index] = reason;
+        rejectedCount++;
+    }
+
+    void reject(int index, int violatedRules) {
+        violations[index] = violatedRules;
+        rejectedCount++;
+    }
+
+    /**
+     * @return the number of frames in the batch
+     */
+    public int size() {
+        return violations.length;
+    }
+
+    public int getAcceptedCount() {
+        return violations.length - rejectedCount;
+    }
+
+    public int getRejectedCount() {
+        return rejectedCount;
+    }
+
+    public boolean isAccepted(int index) {
+        return parseFailures[index] == null && violations[index] == ValidationRule.NONE;
+    }
+
+    /**
+     * @param index the position of the frame in the batch
+     * @return the bitmask of every {@link ValidationRule} violated by the frame, {@link ValidationRule#NONE} if
+     * the frame was accepted or could not be parsed
+     */
+    public int getViolations(int index) {
+        return violations[index];
+    }
+
+    /**
+     * @param index the position of the frame in the batch
+     * @return the exception which would have been thrown if the frame had been passed alone, or null if the frame
+     * was accepted
+     */
+    public @Nullable RuntimeException getRejection(int index) {
+        if (parseFailures[index] != null) {
+            return parseFailures[index];
+        }
+        return violations[index] == ValidationRule.NONE ? null : ValidationRule.firstViolated(violations[index]).toException();
+    }
+}
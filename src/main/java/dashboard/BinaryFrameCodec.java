@@ -0,0 +1,116 @@
+package dashboard;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Compact fixed-width binary encoding of the measured values, the alternative of the pipe-delimited text.
+ * Every frame takes {@value #FRAME_LENGTH} bytes in the byte order of the buffer:
+ * <pre>
+ * offset  size  content
+ *      0     1  format version, currently {@value #VERSION}
+ *      1     1  flags: bit 0 headlights, bit 1 low oil level, bit 2 engine started
+ *      2     2  speed as signed short
+ *      4     2  rpm as unsigned short
+ *      6     1  gear as its ASCII code
+ *      7     1  reserved, written as 0 and ignored when read
+ *      8     4  acceleration as float
+ * </pre>
+ */
+public final class BinaryFrameCodec {
+
+    public static final int FRAME_LENGTH = 12;
+    public static final byte VERSION = 1;
+
+    private static final int HEADLIGHTS = 1;
+    private static final int LOW_OIL_LEVEL = 1 << 1;
+    private static final int ENGINE_STARTED = 1 << 2;
+    private static final int DEFINED_FLAGS = HEADLIGHTS | LOW_OIL_LEVEL | ENGINE_STARTED;
+
+    private static final int MAX_RPM = 0xFFFF;
+
+    private BinaryFrameCodec() {
+    }
+
+    /**
+     * @param frames the buffer holding consecutive frames between its position and its limit
+     * @return the number of frames in the buffer
+     */
+    public static int countFrames(@NotNull ByteBuffer frames) {
+        if (frames.remaining() % FRAME_LENGTH != 0) {
+            throw new IllegalArgumentException("The buffer does not consist of whole binary frames.");
+        }
+        return frames.remaining() / FRAME_LENGTH;
+    }
+
+    /**
+     * Decodes the frame starting at the position of the buffer and advances the position to the next frame.
+     * @param frames the buffer holding the frame
+     * @param target the object to store the decoded values into
+     */
+    public static void decode(@NotNull ByteBuffer frames, @NotNull DashboardData target) {
+        if (frames.remaining() < FRAME_LENGTH) {
+            throw new IllegalArgumentException("Unexpected length of the binary frame.");
+        }
+        int position = frames.position();
+        if (frames.get(position) != VERSION) {
+            throw new IllegalArgumentException("Unsupported version of the binary frame.");
+        }
+        int flags = frames.get(position + 1);
+        if ((flags & ~DEFINED_FLAGS) != 0) {
+            throw new IllegalArgumentException("Undefined flags in the binary frame.");
+        }
+
+        target.setSpeed(frames.getShort(position + 2));
+        target.setRpm(frames.getShort(position + 4) & MAX_RPM);
+        target.setGear(Gear.byByte(frames.get(position + 6)));
+        target.setAcceleration(frames.getFloat(position + 8));
+        target.setHeadlights((flags & HEADLIGHTS) != 0);
+        target.setLowOilLevel((flags & LOW_OIL_LEVEL) != 0);
+        target.setEngineStarted((flags & ENGINE_STARTED) != 0);
+
+        frames.position(position + FRAME_LENGTH);
+    }
+
+    /**
+     * @param dashboardData the values to encode
+     * @return whether the values fit into the fields of a binary frame
+     */
+    public static boolean isEncodable(@NotNull DashboardData dashboardData) {
+        return dashboardData.getSpeed() >= Short.MIN_VALUE && dashboardData.getSpeed() <= Short.MAX_VALUE &&
+                dashboardData.getRpm() >= 0 && dashboardData.getRpm() <= MAX_RPM &&
+                dashboardData.getGear() != null;
+    }
+
+    /**
+     * Encodes the values at the position of the buffer and advances the position after the frame.
+     * @param dashboardData the values to encode
+     * @param frames the buffer to write the frame into
+     */
+    public static void encode(@NotNull DashboardData dashboardData, @NotNull ByteBuffer frames) {
+        if (dashboardData.getSpeed() < Short.MIN_VALUE || dashboardData.getSpeed() > Short.MAX_VALUE) {
+            throw new IllegalArgumentException("The speed cannot be encoded in a binary frame.");
+        }
+        if (dashboardData.getRpm() < 0 || dashboardData.getRpm() > MAX_RPM) {
+            throw new IllegalArgumentException("The RPM cannot be encoded in a binary frame.");
+        }
+        if (frames.remaining() < FRAME_LENGTH) {
+            throw new IllegalArgumentException("Not enough space for the binary frame.");
+        }
+        int flags = (dashboardData.isHeadlights() ? HEADLIGHTS : 0) |
+                (dashboardData.isLowOilLevel() ? LOW_OIL_LEVEL : 0) |
+                (dashboardData.isEngineStarted() ? ENGINE_STARTED : 0);
+
+        int position = frames.position();
+        frames.put(position, VERSION);
+        frames.put(position + 1, (byte) flags);
+        frames.putShort(position + 2, (short) dashboardData.getSpeed());
+        frames.putShort(position + 4, (short) dashboardData.getRpm());
+        frames.put(position + 6, (byte) dashboardData.getGear().getValue().charAt(0));
+        frames.put(position + 7, (byte) 0);
+        frames.putFloat(position + 8, dashboardData.getAcceleration());
+
+        frames.position(position + FRAME_LENGTH);
+    }
+}
@@ -3,144 +3,420 @@ package dashboard;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
-import java.util.Arrays;
+import java.nio.ByteBuffer;
+import java.util.AbstractList;
 import java.util.List;
-import java.util.Objects;
+import java.util.RandomAccess;
 
 import static dashboard.DashboardData.fromString;
 
+/**
+ * Validates and displays the measured values of a single vehicle. The display shall be fed by a single thread at
+ * a time, while its history can be read concurrently from any number of threads.
+ */
 public class CarDisplay implements DataDisplay {
 
-    private static final int HISTORY_MOVING_WINDOW_LENGTH = 5;
-    private static final int MAX_ALLOWED_DELTA_SPEED = 5;
-    private static final int LOWEST_SPEED = -20;
-    private static final int HIGHEST_SPEED = 350;
+    static final int DEFAULT_HISTORY_MOVING_WINDOW_LENGTH = 5;
 
-    private final boolean automaticTransmission;
-    private final DashboardData[] historicalValues;
+    private final RuleEngine ruleEngine;
+    private final HistoryBuffer historicalValues;
+    private final DisplaySink displaySink;
+    private final FrameListener frameListener;
+    private final DashboardMetrics.Recorder metrics;
+    private final DashboardDataPool pool;
+    private final List<DashboardData> historyView;
 
     CarDisplay(boolean hasAutomaticTransmission) {
-        automaticTransmission = hasAutomaticTransmission;
-        historicalValues = new DashboardData[HISTORY_MOVING_WINDOW_LENGTH];
+        this(hasAutomaticTransmission, DEFAULT_HISTORY_MOVING_WINDOW_LENGTH);
     }
 
+    CarDisplay(boolean hasAutomaticTransmission, int historyMovingWindowLength) {
+        this(hasAutomaticTransmission, historyMovingWindowLength, ConsoleDisplaySink.INSTANCE);
+    }
+
+    CarDisplay(boolean hasAutomaticTransmission, int historyMovingWindowLength, @NotNull DisplaySink displaySink) {
+        this(RuleEngine.defaultRules(hasAutomaticTransmission), historyMovingWindowLength, displaySink);
+    }
+
+    CarDisplay(@NotNull RuleEngine ruleEngine, int historyMovingWindowLength, @NotNull DisplaySink displaySink) {
+        this(ruleEngine, new HistoryBuffer(historyMovingWindowLength), displaySink, null);
+    }
+
+    CarDisplay(@NotNull RuleEngine ruleEngine,
+               int historyMovingWindowLength,
+               @NotNull DisplaySink displaySink,
+               @Nullable FrameListener frameListener)
+    {
+        this(ruleEngine, new HistoryBuffer(historyMovingWindowLength), displaySink, frameListener);
+    }
+
+    CarDisplay(@NotNull RuleEngine ruleEngine,
+               @NotNull HistoryBuffer historyBuffer,
+               @NotNull DisplaySink displaySink,
+               @Nullable FrameListener frameListener)
+    {
+        this(ruleEngine, historyBuffer, displaySink, frameListener, null);
+    }
+
+    /**
+     * @param metrics the instrumentation to record into, or null to skip every recording step
+     */
+    CarDisplay(@NotNull RuleEngine ruleEngine,
+               @NotNull HistoryBuffer historyBuffer,
+               @NotNull DisplaySink displaySink,
+               @Nullable FrameListener frameListener,
+               @Nullable DashboardMetrics metrics)
+    {
+        this(ruleEngine, historyBuffer, displaySink, frameListener, metrics, false);
+    }
+
+    /**
+     * @param metrics the instrumentation to record into, or null to skip every recording step
+     * @param pooled whether to decode the frames into preallocated instances recycled as the values fall off
+     *               the history window instead of allocating an instance per frame; the display sink and the
+     *               frame listener shall then not use the values after they have been recycled, see
+     *               {@link #getHistoricalValues()}
+     */
+    CarDisplay(@NotNull RuleEngine ruleEngine,
+               @NotNull HistoryBuffer historyBuffer,
+               @NotNull DisplaySink displaySink,
+               @Nullable FrameListener frameListener,
+               @Nullable DashboardMetrics metrics,
+               boolean pooled)
+    {
+        this.ruleEngine = ruleEngine;
+        historicalValues = historyBuffer;
+        this.displaySink = displaySink;
+        this.frameListener = frameListener;
+        this.metrics = metrics == null ? null : metrics.newRecorder();
+        pool = pooled ? new DashboardDataPool(historyBuffer.length()) : null;
+        historyView = pooled ? new PooledHistoryView() : historyBuffer.asList();
+    }
+
+    /**
+     * Returns a read-only view of the accepted values from the oldest to the latest one. The view is not a copy,
+     * it reflects the values accepted later on, so it shall only be used by the thread feeding this display.
+     * <p>
+     * Unless the display is pooled, every access to an element materializes a new instance owned by the caller.
+     * If the display is pooled, the elements are the instances of the display the frames have been decoded
+     * into: they must not be modified and they are only valid until their values fall off the window, when
+     * they are recycled for new frames. Callers keeping values for longer shall copy them.
+     * @return the view of the history
+     */
     public List<DashboardData> getHistoricalValues() {
-        return Arrays.asList(historicalValues);
+        return historyView;
+    }
+
+    /**
+     * @return the columnar store of the accepted values, for range queries
+     */
+    public @NotNull HistoryBuffer getHistory() {
+        return historicalValues;
+    }
+
+    /**
+     * Takes a consistent copy of the history without blocking the thread feeding this display.
+     * Safe to call from any thread.
+     * @return an unmodifiable copy of the accepted values from the oldest to the latest one
+     */
+    public @NotNull List<DashboardData> getHistorySnapshot() {
+        return historicalValues.snapshot();
+    }
+
+    /**
+     * Safe to call from any thread.
+     * @return the most recently accepted values, or null if nothing has been accepted yet
+     */
+    public @Nullable DashboardData getLatestHistoricalValue() {
+        return historicalValues.readLatest();
+    }
+
+    /**
+     * @return the instrumentation of this display, or null if it is not instrumented
+     */
+    public @Nullable DashboardMetrics getMetrics() {
+        return metrics == null ? null : metrics.getMetrics();
+    }
+
+    /**
+     * Publishes the accepted frames which this display has counted, but not added to the shared counters of its
+     * metrics yet. The batch methods publish them at their end; callers feeding frames one by one shall call this
+     * method when the stream of frames idles or ends.
+     */
+    public void flushMetrics() {
+        if (metrics != null) {
+            metrics.flush();
+        }
     }
 
     @Override
     public void carDashboard(@Nullable String values) {
-        DashboardData dashboardData = fromString(values);
+        DashboardData dashboardData = parse(values);
 
-        validateSpeed(dashboardData);
+        int violations = accept(dashboardData);
+        if (violations != ValidationRule.NONE) {
+            throw ValidationRule.firstViolated(violations).toException();
+        }
 
-        // TODO: validate other values, too
+        display(dashboardData);
+    }
 
-        validateCorrelations(dashboardData);
+    /**
+     * Displays the measured physical values like {@link #carDashboard(String)}, but reports the violated
+     * plausibility rules instead of throwing an exception. Malformed input still throws the same exceptions.
+     * @param values the measured physical values delimited by pipe, i.e. '|' characters
+     * @return the bitmask of every violated {@link ValidationRule}, {@link ValidationRule#NONE} if the values
+     * have been accepted and displayed
+     */
+    public int tryCarDashboard(@Nullable String values) {
+        return tryCarDashboard(parse(values));
+    }
 
-        validateAgainstHistory(dashboardData);
-        updateHistory(dashboardData);
+    /**
+     * Displays already parsed values like {@link #tryCarDashboard(String)}.
+     * @param dashboardData the parsed values
+     * @return the bitmask of every violated {@link ValidationRule}, {@link ValidationRule#NONE} if the values
+     * have been accepted and displayed
+     */
+    public int tryCarDashboard(@NotNull DashboardData dashboardData) {
+        int violations = accept(dashboardData);
+        if (violations == ValidationRule.NONE) {
+            display(dashboardData);
+        }
+        return violations;
+    }
 
-        display(dashboardData);
+    /**
+     * Validates and stores every frame of the batch in a single loop. Unlike processing the frames one by one,
+     * the display is only refreshed once, with the latest accepted values of the batch.
+     * @param frames the frames, each of them holding measured physical values delimited by pipe
+     * @return the outcome of every frame
+     */
+    @Override
+    public @NotNull BatchResult carDashboardBatch(@NotNull List<? extends CharSequence> frames) {
+        BatchResult result = new BatchResult(frames.size());
+        boolean accepted = false;
+        DashboardData scratch = pool == null ? new DashboardData() : null;
+        for (int i = 0; i < frames.size(); i++) {
+            DashboardData dashboardData = pool == null ? scratch : pool.next();
+            long start = startParse();
+            try {
+                FrameParser.parse(frames.get(i), dashboardData);
+            } catch (RuntimeException e) {
+                recordParseFailure(e);
+                result.reject(i, e);
+                continue;
+            }
+            stopParse(start);
+            accepted |= acceptInBatch(dashboardData, result, i);
+        }
+        finishBatch(accepted);
+        return result;
     }
 
     /**
-     * This method calls the display unit to drive/control actuators, move hands, display digital values, etc.
-     * @param dashboardData the parsed and validated values of all measured quantities
+     * Validates and stores every newline-separated frame in a single loop, parsing the frames in place.
+     * Unlike processing the frames one by one, the display is only refreshed once, with the latest accepted
+     * values of the batch.
+     * @param frames the frames, each of them holding measured physical values delimited by pipe
+     * @return the outcome of every frame
      */
-    void display(@NotNull DashboardData dashboardData) {
-        // call display unit to render data (move hands, display digital values, etc.)
-        System.out.println(dashboardData);
+    @Override
+    public @NotNull BatchResult carDashboardLines(@NotNull CharSequence frames) {
+        int end = frames.length();
+        BatchResult result = new BatchResult(FrameParser.countLines(frames, 0, end));
+        boolean accepted = false;
+        DashboardData scratch = pool == null ? new DashboardData() : null;
+        int lineStart = 0;
+        for (int i = 0; i < result.size(); i++) {
+            DashboardData dashboardData = pool == null ? scratch : pool.next();
+            int frameStart = lineStart;
+            int lineEnd = FrameParser.nextLineEnd(frames, frameStart, end);
+            lineStart = lineEnd + 1;
+            long start = startParse();
+            try {
+                FrameParser.parse(frames, frameStart, FrameParser.trimLineEnd(frames, frameStart, lineEnd), dashboardData);
+            } catch (RuntimeException e) {
+                recordParseFailure(e);
+                result.reject(i, e);
+                continue;
+            }
+            stopParse(start);
+            accepted |= acceptInBatch(dashboardData, result, i);
+        }
+        finishBatch(accepted);
+        return result;
+    }
+
+    @Override
+    public void carDashboardBinary(@NotNull ByteBuffer frame) {
+        DashboardData dashboardData = pool == null ? new DashboardData() : pool.next();
+        long start = startParse();
+        try {
+            BinaryFrameCodec.decode(frame, dashboardData);
+        } catch (RuntimeException e) {
+            recordParseFailure(e);
+            throw e;
+        }
+        stopParse(start);
+
+        int violations = accept(dashboardData);
+        if (violations != ValidationRule.NONE) {
+            throw ValidationRule.firstViolated(violations).toException();
+        }
+
+        display(dashboardData);
     }
 
     /**
-     * Validates the speed value against its constraints. This includes range checks and other integrity checks
-     * in correlation of other measured values.
-     * @param dashboardData the parsed input data
+     * Validates and stores every binary frame in a single loop, decoding the frames in place.
+     * Unlike processing the frames one by one, the display is only refreshed once, with the latest accepted
+     * values of the batch.
+     * @param frames the buffer holding the frames in the format of {@link BinaryFrameCodec} between its position
+     *               and its limit; the position is advanced to the limit
+     * @return the outcome of every frame
      */
-    private void validateSpeed(@NotNull DashboardData dashboardData) {
-        if (dashboardData.getSpeed() < LOWEST_SPEED || dashboardData.getSpeed() > HIGHEST_SPEED) {
-            throw new IllegalArgumentException("The speed is out of range.");
+    @Override
+    public @NotNull BatchResult carDashboardBinaryBatch(@NotNull ByteBuffer frames) {
+        BatchResult result = new BatchResult(BinaryFrameCodec.countFrames(frames));
+        int frameStart = frames.position();
+        boolean accepted = false;
+        DashboardData scratch = pool == null ? new DashboardData() : null;
+        for (int i = 0; i < result.size(); i++) {
+            DashboardData dashboardData = pool == null ? scratch : pool.next();
+            frames.position(frameStart + i * BinaryFrameCodec.FRAME_LENGTH);
+            long start = startParse();
+            try {
+                BinaryFrameCodec.decode(frames, dashboardData);
+            } catch (RuntimeException e) {
+                recordParseFailure(e);
+                result.reject(i, e);
+                continue;
+            }
+            stopParse(start);
+            accepted |= acceptInBatch(dashboardData, result, i);
+        }
+        frames.position(frames.limit());
+        finishBatch(accepted);
+        return result;
+    }
+
+    private boolean acceptInBatch(@NotNull DashboardData dashboardData, @NotNull BatchResult result, int index) {
+        int violations = accept(dashboardData);
+        if (violations != ValidationRule.NONE) {
+            result.reject(index, violations);
+            return false;
         }
+        return true;
+    }
 
-        if (dashboardData.getSpeed() != 0 && !dashboardData.isEngineStarted()) {
-            throw new IllegalStateException("Engine is not running.");
+    private void finishBatch(boolean accepted) {
+        if (accepted) {
+            DashboardData latest = pool == null ? null : pool.latest();
+            display(latest != null ? latest : historicalValues.latest());
         }
+        flushMetrics();
     }
 
     /**
-     * Checks how the actual parameter values correlate to each other, i.e. a kind of sanity check.
-     * If an anomaly - i.e. an unreasonable combination of values - is detected, an exception is thrown.
+     * Validates the parsed values against every plausibility rule without side effects.
      * @param dashboardData the parsed input data
+     * @return the bitmask of every violated {@link ValidationRule}, {@link ValidationRule#NONE} if the values
+     * are valid
      */
-    private void validateCorrelations(@NotNull DashboardData dashboardData) {
-        checkTransmissionType(dashboardData);
-        checkIfSpeedIsWithinGearRange(dashboardData);
-        checkIfRpmIsWithinGearRange(dashboardData);
-        checkIfRpmIsReasonableForSpeedAndAcceleration(dashboardData);
+    public int validate(@NotNull DashboardData dashboardData) {
+        return ruleEngine.evaluate(dashboardData) | validateAgainstHistory(dashboardData);
     }
 
-    private void checkIfRpmIsReasonableForSpeedAndAcceleration(@NotNull DashboardData dashboardData) {
-        checkForLowAcceleration(dashboardData);
-        checkForHighAcceleration(dashboardData);
+    /**
+     * Validates the parsed values and stores them in the history if they are valid.
+     * @param dashboardData the parsed input data
+     * @return the bitmask of every violated {@link ValidationRule}
+     */
+    private int accept(@NotNull DashboardData dashboardData) {
+        long start = metrics == null ? DashboardMetrics.NOT_SAMPLED : metrics.start(DashboardMetrics.VALIDATION);
+        int violations = validate(dashboardData);
+        if (metrics != null) {
+            metrics.stop(DashboardMetrics.VALIDATION, start);
+            metrics.recordFrame(violations);
+        }
+        if (violations == ValidationRule.NONE) {
+            updateHistory(dashboardData);
+        }
+        if (frameListener != null) {
+            frameListener.onFrame(dashboardData, violations);
+        }
+        return violations;
     }
 
-    private void checkForHighAcceleration(@NotNull DashboardData dashboardData) {
-        if (Math.abs(dashboardData.getAcceleration()) > 5.0 &&
-                dashboardData.getRpm() < ((dashboardData.getGear().getLowestRpm() + dashboardData.getGear().getHighestRpm()) / 2) &&
-                dashboardData.getSpeed() > ((dashboardData.getGear().getLowestSpeed() + dashboardData.getGear().getHighestSpeed()) / 2) &&
-                dashboardData.getGear() != Gear.N
-        ) {
-            throw new IllegalStateException(
-                    "Measured low RPM, relatively high speed with notable acceleration or deceleration."
-            );
+    private @NotNull DashboardData parse(@Nullable String values) {
+        if (metrics == null) {
+            return decode(values);
         }
+        long start = metrics.start(DashboardMetrics.PARSE);
+        DashboardData dashboardData;
+        try {
+            dashboardData = decode(values);
+        } catch (RuntimeException e) {
+            metrics.recordParseFailure(e);
+            throw e;
+        }
+        metrics.stop(DashboardMetrics.PARSE, start);
+        return dashboardData;
     }
 
-    private void checkForLowAcceleration(@NotNull DashboardData dashboardData) {
-        if (Math.abs(dashboardData.getAcceleration()) < 5.0 &&
-                dashboardData.getRpm() > ((dashboardData.getGear().getLowestRpm() + dashboardData.getGear().getHighestRpm()) / 2) &&
-                dashboardData.getSpeed() < ((dashboardData.getGear().getLowestSpeed() + dashboardData.getGear().getHighestSpeed()) / 2) &&
-                dashboardData.getGear() != Gear.N
-        ) {
-            throw new IllegalStateException(
-                    "Measured high RPM, relatively low speed without notable acceleration or deceleration."
-            );
+    private @NotNull DashboardData decode(@Nullable String values) {
+        if (pool == null) {
+            return fromString(values);
         }
+        DashboardData dashboardData = pool.next();
+        FrameParser.parse(values, dashboardData);
+        return dashboardData;
+    }
+
+    private long startParse() {
+        return metrics == null ? DashboardMetrics.NOT_SAMPLED : metrics.start(DashboardMetrics.PARSE);
     }
 
-    private void checkIfRpmIsWithinGearRange(@NotNull DashboardData dashboardData) {
-        if (dashboardData.getRpm() < dashboardData.getGear().getLowestRpm() ||
-                dashboardData.getRpm() > dashboardData.getGear().getHighestRpm()) {
-            throw new IllegalStateException("RPM does not correlate to the current gear.");
+    private void stopParse(long start) {
+        // not sampled whenever there are no metrics
+        if (start != DashboardMetrics.NOT_SAMPLED) {
+            metrics.stop(DashboardMetrics.PARSE, start);
         }
     }
 
-    private void checkIfSpeedIsWithinGearRange(@NotNull DashboardData dashboardData) {
-        if (dashboardData.getSpeed() < dashboardData.getGear().getLowestSpeed() ||
-                dashboardData.getSpeed() > dashboardData.getGear().getHighestSpeed()) {
-            throw new IllegalStateException("Speed does not correlate to the current gear.");
+    private void recordParseFailure(@NotNull RuntimeException exception) {
+        if (metrics != null) {
+            metrics.recordParseFailure(exception);
         }
     }
 
-    private void checkTransmissionType(@NotNull DashboardData dashboardData) {
-        if ((automaticTransmission && !dashboardData.getGear().isApplicableToAutomatic()) ||
-                (!automaticTransmission && !dashboardData.getGear().isApplicableToManual())) {
-            throw new IllegalStateException("Invalid gear for the selected transmission type.");
+    /**
+     * This method calls the display unit to drive/control actuators, move hands, display digital values, etc.
+     * @param dashboardData the parsed and validated values of all measured quantities
+     */
+    void display(@NotNull DashboardData dashboardData) {
+        // call display unit to render data (move hands, display digital values, etc.)
+        if (metrics == null) {
+            displaySink.render(dashboardData);
+            return;
         }
+        long start = metrics.start(DashboardMetrics.DISPLAY);
+        displaySink.render(dashboardData);
+        metrics.stop(DashboardMetrics.DISPLAY, start);
     }
 
     /**
      * Checks if the current values fit into the series of historical values.
      * If they are outliers, they will be ignored.
      * @param dashboardData the parsed and validated input data
+     * @return the bitmask of the violated rules
      */
-    private void validateAgainstHistory(@NotNull DashboardData dashboardData) {
-        if (getEffectiveLengthOfHistory() > 0 &&
-                Math.abs(dashboardData.getSpeed() -
-                        historicalValues[getEffectiveLengthOfHistory() - 1].getSpeed()) > MAX_ALLOWED_DELTA_SPEED) {
-            throw new IllegalStateException("Outlier speed value based on history.");
+    private int validateAgainstHistory(@NotNull DashboardData dashboardData) {
+        if (historicalValues.isEmpty()) {
+            return ValidationRule.NONE;
         }
+        return ruleEngine.evaluateAgainstHistory(dashboardData, historicalValues);
     }
 
     /**
@@ -148,19 +424,30 @@ public class CarDisplay implements DataDisplay {
      * @param dashboardData the parsed and validated input data
      */
     private void updateHistory(@NotNull DashboardData dashboardData) {
-        int effectiveLength = getEffectiveLengthOfHistory();
-        if (effectiveLength < HISTORY_MOVING_WINDOW_LENGTH) {
-            historicalValues[effectiveLength] = dashboardData;
-        } else {
-            historicalValues[0] = historicalValues[1];
-            historicalValues[1] = historicalValues[2];
-            historicalValues[2] = historicalValues[3];
-            historicalValues[3] = historicalValues[4];
-            historicalValues[4] = dashboardData;
+        historicalValues.add(dashboardData);
+        if (pool != null) {
+            pool.commit(dashboardData);
         }
     }
 
-    private int getEffectiveLengthOfHistory() {
-        return (int) Arrays.stream(historicalValues).filter(Objects::nonNull).count();
+    /**
+     * View of the history returning the pooled instances of the latest values, which are all the values once
+     * the window has been filled by pooled frames.
+     */
+    private final class PooledHistoryView extends AbstractList<DashboardData> implements RandomAccess {
+
+        @Override
+        public DashboardData get(int index) {
+            int age = historicalValues.size() - 1 - index;
+            if (index >= 0 && age >= 0 && age < pool.committedCount()) {
+                return pool.committed(age);
+            }
+            return historicalValues.get(index);
+        }
+
+        @Override
+        public int size() {
+            return historicalValues.size();
+        }
     }
 }
@@ -0,0 +1,248 @@
+package dashboard;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+/**
+ * Updates only the indicators whose values have visibly changed since they were last shown. The values are
+ * compared to the shown ones field by field: the numeric indicators change when the difference exceeds their
+ * deadband, the others on any difference. The refresh rate of every indicator can be limited as well, a change
+ * arriving too early is then held back until the interval has elapsed. It is shown by the first value rendered
+ * after that if it still differs, or by {@link #flush()} if no further value arrives.
+ * <p>
+ * Every shown value is copied, so the sink may be fed by a pooled display. Like every display sink, it is called
+ * by the thread feeding the display, and so are its getters.
+ */
+public final class ChangeDetectingDisplaySink implements DisplaySink {
+
+    public static final double DEFAULT_SPEED_DEADBAND = 1;
+    public static final double DEFAULT_RPM_DEADBAND = 50;
+    public static final double DEFAULT_ACCELERATION_DEADBAND = 0.1;
+
+    private static final Indicator[] INDICATORS = Indicator.values();
+
+    private final IndicatorSink delegate;
+    private final LongSupplier nanoTime;
+
+    private double speedDeadband = DEFAULT_SPEED_DEADBAND;
+    private double rpmDeadband = DEFAULT_RPM_DEADBAND;
+    private double accelerationDeadband = DEFAULT_ACCELERATION_DEADBAND;
+
+    /**
+     * The bitmask of the indicators with a limited refresh rate.
+     */
+    private int throttledIndicators = Indicator.NONE;
+    private final long[] minRefreshIntervalNanos = new long[INDICATORS.length];
+    private final long[] lastRefreshTimes = new long[INDICATORS.length];
+
+    private final DashboardData shown = new DashboardData();
+    private boolean anythingShown;
+
+    /**
+     * The bitmask of the indicators whose latest change has been held back, with the values in {@link #heldBack}.
+     */
+    private int heldBackIndicators = Indicator.NONE;
+    private final DashboardData heldBack = new DashboardData();
+
+    private long receivedCount;
+    private long updateCount;
+    private final long[] indicatorUpdateCounts = new long[INDICATORS.length];
+
+    /**
+     * Creates a sink with the default deadbands and without limiting the refresh rates.
+     * @param delegate the actuators and renderers of the indicators
+     */
+    public ChangeDetectingDisplaySink(@NotNull IndicatorSink delegate) {
+        this(delegate, System::nanoTime);
+    }
+
+    ChangeDetectingDisplaySink(@NotNull IndicatorSink delegate, @NotNull LongSupplier nanoTime) {
+        this.delegate = delegate;
+        this.nanoTime = nanoTime;
+    }
+
+    /**
+     * Sets the smallest difference to the shown value which is regarded as a change.
+     * @param indicator {@link Indicator#SPEED}, {@link Indicator#RPM} or {@link Indicator#ACCELERATION}
+     * @param deadband the non-negative deadband, 0 to show every change
+     */
+    public void setDeadband(@NotNull Indicator indicator, double deadband) {
+        if (!(deadband >= 0 && deadband < Double.POSITIVE_INFINITY)) {
+            throw new IllegalArgumentException("The deadband shall be a non-negative finite number.");
+        }
+        switch (indicator) {
+            case SPEED:
+                speedDeadband = deadband;
+                break;
+            case RPM:
+                rpmDeadband = deadband;
+                break;
+            case ACCELERATION:
+                accelerationDeadband = deadband;
+                break;
+            default:
+                throw new IllegalArgumentException("The " + indicator + " indicator has no deadband.");
+        }
+    }
+
+    /**
+     * Limits how often an indicator is updated.
+     * @param indicator the indicator
+     * @param maxRefreshesPerSecond the maximum refresh rate, or 0 for no limit
+     */
+    public void setMaxRefreshRate(@NotNull Indicator indicator, int maxRefreshesPerSecond) {
+        if (maxRefreshesPerSecond < 0) {
+            throw new IllegalArgumentException("The refresh rate shall not be negative.");
+        }
+        int index = indicator.ordinal();
+        if (maxRefreshesPerSecond == 0) {
+            minRefreshIntervalNanos[index] = 0;
+            throttledIndicators &= ~indicator.getMask();
+        } else {
+            minRefreshIntervalNanos[index] = TimeUnit.SECONDS.toNanos(1) / maxRefreshesPerSecond;
+            throttledIndicators |= indicator.getMask();
+        }
+    }
+
+    @Override
+    public void render(@NotNull DashboardData dashboardData) {
+        receivedCount++;
+        int changes = anythingShown ? changedIndicators(dashboardData) : Indicator.ALL;
+        // a newer value supersedes the ones held back so far
+        heldBackIndicators = Indicator.NONE;
+        if ((changes & throttledIndicators) != 0) {
+            int allowed = throttle(changes);
+            heldBackIndicators = changes & ~allowed;
+            copy(dashboardData, heldBack, heldBackIndicators);
+            changes = allowed;
+        }
+        update(dashboardData, changes);
+    }
+
+    /**
+     * Shows the changes held back by the refresh rate limits whose interval has elapsed since, without waiting
+     * for a further value. Shall be called periodically by the thread feeding the display, e.g. when no value
+     * arrives within the shortest refresh interval.
+     * @return whether any indicator has been updated
+     */
+    public boolean flush() {
+        if (heldBackIndicators == Indicator.NONE) {
+            return false;
+        }
+        int due = throttle(heldBackIndicators);
+        heldBackIndicators &= ~due;
+        return update(heldBack, due);
+    }
+
+    /**
+     * @return whether changes are held back by the refresh rate limits, to be shown by {@link #flush()}
+     */
+    public boolean hasHeldBackChanges() {
+        return heldBackIndicators != Indicator.NONE;
+    }
+
+    private boolean update(@NotNull DashboardData dashboardData, int changes) {
+        if (changes == Indicator.NONE) {
+            return false;
+        }
+
+        copy(dashboardData, shown, changes);
+        anythingShown = true;
+        updateCount++;
+        for (int remaining = changes; remaining != 0; remaining &= remaining - 1) {
+            indicatorUpdateCounts[Integer.numberOfTrailingZeros(remaining)]++;
+        }
+        delegate.update(shown, changes);
+        return true;
+    }
+
+    private int changedIndicators(@NotNull DashboardData dashboardData) {
+        int changes = Indicator.NONE;
+        if (Math.abs(dashboardData.getSpeed() - shown.getSpeed()) > speedDeadband) {
+            changes |= Indicator.SPEED.getMask();
+        }
+        if (Math.abs(dashboardData.getRpm() - shown.getRpm()) > rpmDeadband) {
+            changes |= Indicator.RPM.getMask();
+        }
+        if (Math.abs(dashboardData.getAcceleration() - shown.getAcceleration()) > accelerationDeadband) {
+            changes |= Indicator.ACCELERATION.getMask();
+        }
+        if (dashboardData.getGear() != shown.getGear()) {
+            changes |= Indicator.GEAR.getMask();
+        }
+        if (dashboardData.isHeadlights() != shown.isHeadlights()) {
+            changes |= Indicator.HEADLIGHTS.getMask();
+        }
+        if (dashboardData.isLowOilLevel() != shown.isLowOilLevel()) {
+            changes |= Indicator.LOW_OIL_LEVEL.getMask();
+        }
+        if (dashboardData.isEngineStarted() != shown.isEngineStarted()) {
+            changes |= Indicator.ENGINE_STARTED.getMask();
+        }
+        return changes;
+    }
+
+    /**
+     * Holds back the changes of the throttled indicators which have been updated too recently.
+     */
+    private int throttle(int changes) {
+        long now = nanoTime.getAsLong();
+        for (int remaining = changes & throttledIndicators; remaining != 0; remaining &= remaining - 1) {
+            int index = Integer.numberOfTrailingZeros(remaining);
+            if (anythingShown && now - lastRefreshTimes[index] < minRefreshIntervalNanos[index]) {
+                changes &= ~(1 << index);
+            } else {
+                lastRefreshTimes[index] = now;
+            }
+        }
+        return changes;
+    }
+
+    private static void copy(@NotNull DashboardData from, @NotNull DashboardData to, int indicators) {
+        if (Indicator.SPEED.isIn(indicators)) {
+            to.setSpeed(from.getSpeed());
+        }
+        if (Indicator.RPM.isIn(indicators)) {
+            to.setRpm(from.getRpm());
+        }
+        if (Indicator.ACCELERATION.isIn(indicators)) {
+            to.setAcceleration(from.getAcceleration());
+        }
+        if (Indicator.GEAR.isIn(indicators)) {
+            to.setGear(from.getGear());
+        }
+        if (Indicator.HEADLIGHTS.isIn(indicators)) {
+            to.setHeadlights(from.isHeadlights());
+        }
+        if (Indicator.LOW_OIL_LEVEL.isIn(indicators)) {
+            to.setLowOilLevel(from.isLowOilLevel());
+        }
+        if (Indicator.ENGINE_STARTED.isIn(indicators)) {
+            to.setEngineStarted(from.isEngineStarted());
+        }
+    }
+
+    /**
+     * @return the number of values passed to the sink
+     */
+    public long getReceivedCount() {
+        return receivedCount;
+    }
+
+    /**
+     * @return the number of values which updated at least one indicator
+     */
+    public long getUpdateCount() {
+        return updateCount;
+    }
+
+    /**
+     * @param indicator the indicator
+     * @return the number of times the indicator has been updated
+     */
+    public long getUpdateCount(@NotNull Indicator indicator) {
+        return indicatorUpdateCounts[indicator.ordinal()];
+    }
+}
@@ -0,0 +1,19 @@
+package dashboard;
+
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Display unit printing the values to the standard output.
+ */
+public final class ConsoleDisplaySink implements DisplaySink {
+
+    public static final ConsoleDisplaySink INSTANCE = new ConsoleDisplaySink();
+
+    private ConsoleDisplaySink() {
+    }
+
+    @Override
+    public void render(@NotNull DashboardData dashboardData) {
+        System.out.println(dashboardData);
+    }
+}
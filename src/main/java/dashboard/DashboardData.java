@@ -2,13 +2,8 @@ package dashboard;
 
 import org.jetbrains.annotations.Nullable;
 
-import java.util.Arrays;
-import java.util.List;
-
 public class DashboardData {
 
-    private static final int NUMBER_OF_PARAMETERS = 7;
-
     private int speed;
     private int rpm;
     private float acceleration;
@@ -17,40 +12,38 @@ public class DashboardData {
     private boolean lowOilLevel;
     private boolean engineStarted;
 
+    /**
+     * Parses the pipe-delimited measured values into a new instance.
+     * @param values the measured physical values delimited by pipe, i.e. '|' characters
+     * @return the parsed values
+     * @see FrameParser
+     */
     public static DashboardData fromString(@Nullable String values) {
         DashboardData dashboardData = new DashboardData();
-
-        if (values == null) {
-            throw new IllegalArgumentException("The input shall not be null.");
-        }
-
-        List<String> splitValues = Arrays.asList(values.split("\\|"));
-
-        if (splitValues.size() != NUMBER_OF_PARAMETERS) {
-            throw new IllegalArgumentException("Unexpected number of parameters in the input.");
-        }
-
-        dashboardData.setSpeed(Integer.parseInt(splitValues.get(0)));
-        dashboardData.setRpm(Integer.parseInt(splitValues.get(1)));
-        dashboardData.setAcceleration(Float.parseFloat(splitValues.get(2)));
-        dashboardData.setGear(Gear.byValue(splitValues.get(3)));
-        dashboardData.setHeadlights(Boolean.parseBoolean(splitValues.get(4)));
-        dashboardData.setLowOilLevel(Boolean.parseBoolean(splitValues.get(5)));
-        dashboardData.setEngineStarted(Boolean.parseBoolean(splitValues.get(6)));
-
+        FrameParser.parse(values, dashboardData);
         return dashboardData;
     }
 
+    /**
+     * Formats the values as the pipe-delimited text parsed by {@link #fromString(String)}.
+     * @return the measured physical values delimited by pipe, i.e. '|' characters
+     */
+    public String toFrameString() {
+        // the getters are used, as subclasses may decode the values on demand
+        return String.valueOf(getSpeed()) + '|' + getRpm() + '|' + getAcceleration() + '|' + getGear().getValue() +
+                '|' + isHeadlights() + '|' + isLowOilLevel() + '|' + isEngineStarted();
+    }
+
     @Override
     public String toString() {
         return "DashboardData{" +
-                "speed=" + speed +
-                ", rpm=" + rpm +
-                ", acceleration=" + acceleration +
-                ", gear='" + gear + '\'' +
-                ", headlights=" + headlights +
-                ", lowOilLevel=" + lowOilLevel +
-                ", engineStarted=" + engineStarted +
+                "speed=" + getSpeed() +
+                ", rpm=" + getRpm() +
+                ", acceleration=" + getAcceleration() +
+                ", gear='" + getGear() + '\'' +
+                ", headlights=" + isHeadlights() +
+                ", lowOilLevel=" + isLowOilLevel() +
+                ", engineStarted=" + isEngineStarted() +
                 '}';
     }
 
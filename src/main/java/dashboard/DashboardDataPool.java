@@ -0,0 +1,85 @@
+package dashboard;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Preallocated {@link DashboardData} instances which a display decodes its frames into, so the steady-state
+ * ingestion produces no garbage. The instances form a ring with one more element than the history window:
+ * the instance of an accepted frame represents that frame while it is in the window, and it is recycled for
+ * a new frame once the frame has fallen off the window. The instance of a rejected frame is recycled for the
+ * next frame right away.
+ * <p>
+ * The pool preallocates an instance per value of the window, so it suits short windows. It shall only be used
+ * by the thread feeding the display.
+ */
+final class DashboardDataPool {
+
+    private final DashboardData[] instances;
+
+    /**
+     * Index of the instance the next frame is decoded into.
+     */
+    private int next;
+
+    /**
+     * Number of the latest accepted values held by pooled instances, at most the length of the window.
+     */
+    private int committedCount;
+
+    /**
+     * @param historyLength the length of the history window of the display
+     */
+    DashboardDataPool(int historyLength) {
+        instances = new DashboardData[historyLength + 1];
+        for (int i = 0; i < instances.length; i++) {
+            instances[i] = new DashboardData();
+        }
+    }
+
+    /**
+     * @return the instance to decode the next frame into; the same instance is returned until it is committed
+     */
+    @NotNull DashboardData next() {
+        return instances[next];
+    }
+
+    /**
+     * Records that values have been added to the history of the display.
+     * @param dashboardData the accepted values, either the instance returned by {@link #next()} or an instance
+     *                      of the caller, which interrupts the series of the pooled values
+     */
+    void commit(@NotNull DashboardData dashboardData) {
+        if (dashboardData != instances[next]) {
+            committedCount = 0;
+            return;
+        }
+        next = next + 1 == instances.length ? 0 : next + 1;
+        if (committedCount < instances.length - 1) {
+            committedCount++;
+        }
+    }
+
+    /**
+     * @return the number of the latest accepted values held by pooled instances
+     */
+    int committedCount() {
+        return committedCount;
+    }
+
+    /**
+     * @param age the number of values accepted after the requested one, less than {@link #committedCount()}
+     * @return the pooled instance holding the accepted value
+     */
+    @NotNull DashboardData committed(int age) {
+        int index = next - 1 - age;
+        return instances[index < 0 ? index + instances.length : index];
+    }
+
+    /**
+     * @return the pooled instance holding the latest accepted value, or null if that is not a pooled instance
+     */
+    @Nullable DashboardData latest() {
+        return committedCount == 0 ? null : committed(0);
+    }
+}
@@ -0,0 +1,340 @@
+package dashboard;
+
+import org.jetbrains.annotations.NotNull;
+
+import javax.management.JMException;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Instrumentation of the ingestion: striped counters of the processed frames, of the violations per
+ * {@link ValidationRule} and of the malformed frames per exception, and sampled {@link LatencyHistogram latency
+ * histograms} of the parse, the validation and the display stages. The same instance may be shared by displays
+ * fed by different threads.
+ * <p>
+ * A display only pays for the instrumentation if it has been created with metrics, otherwise it skips every
+ * recording step. To keep the overhead off the hot path, every display records through its own single-threaded
+ * {@link Recorder}: only the stages of every n-th frame are timed, and the accepted frames are published to the shared
+ * counters in chunks of n frames, when a frame is rejected, at the end of every batch, or when the display is
+ * flushed by {@link CarDisplay#flushMetrics()}. So the counters of a display fed frame by frame may lag behind by
+ * less than n accepted frames until it is flushed.
+ */
+public final class DashboardMetrics implements DashboardMetricsMXBean {
+
+    public static final int DEFAULT_LATENCY_SAMPLING_INTERVAL = 256;
+
+    private static final ValidationRule[] RULES = ValidationRule.values();
+
+    static final int PARSE = 0;
+    static final int VALIDATION = 1;
+    static final int DISPLAY = 2;
+
+    /**
+     * Returned by {@link Recorder#start(int)} if the measurement is not sampled.
+     */
+    static final long NOT_SAMPLED = Long.MIN_VALUE;
+
+    private final int latencySamplingInterval;
+    private final LongAdder frames = new LongAdder();
+    private final LongAdder invalidFrames = new LongAdder();
+    private final LongAdder[] violations = new LongAdder[RULES.length];
+    private final Map<Class<?>, LongAdder> parseFailures = new ConcurrentHashMap<>();
+
+    private final LatencyHistogram[] latencies = {
+            new LatencyHistogram(), new LatencyHistogram(), new LatencyHistogram()
+    };
+
+    /**
+     * Creates metrics timing every {@value #DEFAULT_LATENCY_SAMPLING_INTERVAL}th frame.
+     */
+    public DashboardMetrics() {
+        this(DEFAULT_LATENCY_SAMPLING_INTERVAL);
+    }
+
+    /**
+     * @param latencySamplingInterval every how many frames the latencies are measured, 1 for every frame
+     */
+    public DashboardMetrics(int latencySamplingInterval) {
+        if (latencySamplingInterval < 1) {
+            throw new IllegalArgumentException("The sampling interval shall be positive.");
+        }
+        this.latencySamplingInterval = latencySamplingInterval;
+        for (int i = 0; i < violations.length; i++) {
+            violations[i] = new LongAdder();
+        }
+    }
+
+    public int getLatencySamplingInterval() {
+        return latencySamplingInterval;
+    }
+
+    /**
+     * @return a new recorder for a display, to be used by the thread feeding that display
+     */
+    @NotNull Recorder newRecorder() {
+        return new Recorder();
+    }
+
+    /**
+     * @return the number of frames passed to the displays, including the malformed ones
+     */
+    @Override
+    public long getFrameCount() {
+        return frames.sum();
+    }
+
+    @Override
+    public long getAcceptedFrameCount() {
+        // the rejections are read first, so a concurrently processed frame cannot make the result negative
+        long rejectedFrameCount = getRejectedFrameCount();
+        return frames.sum() - rejectedFrameCount;
+    }
+
+    /**
+     * @return the number of frames which were malformed or violated a plausibility rule
+     */
+    @Override
+    public long getRejectedFrameCount() {
+        return invalidFrames.sum() + getParseFailureCount();
+    }
+
+    @Override
+    public long getParseFailureCount() {
+        long count = 0;
+        for (LongAdder failures : parseFailures.values()) {
+            count += failures.sum();
+        }
+        return count;
+    }
+
+    /**
+     * @param rule the plausibility rule
+     * @return the number of frames violating the rule
+     */
+    public long getViolationCount(@NotNull ValidationRule rule) {
+        return violations[rule.ordinal()].sum();
+    }
+
+    @Override
+    public Map<String, Long> getViolationCounts() {
+        Map<String, Long> counts = new LinkedHashMap<>();
+        for (ValidationRule rule : RULES) {
+            counts.put(rule.name(), getViolationCount(rule));
+        }
+        return counts;
+    }
+
+    @Override
+    public Map<String, Long> getParseFailureCounts() {
+        Map<String, Long> counts = new TreeMap<>();
+        parseFailures.forEach((type, failures) -> counts.put(type.getSimpleName(), failures.sum()));
+        return counts;
+    }
+
+    @Override
+    public Map<String, Long> getParseLatency() {
+        return percentiles(latencies[PARSE].snapshot());
+    }
+
+    @Override
+    public Map<String, Long> getValidationLatency() {
+        return percentiles(latencies[VALIDATION].snapshot());
+    }
+
+    @Override
+    public Map<String, Long> getDisplayLatency() {
+        return percentiles(latencies[DISPLAY].snapshot());
+    }
+
+    /**
+     * @return a copy of every metric
+     */
+    public @NotNull Snapshot snapshot() {
+        return new Snapshot(this);
+    }
+
+    /**
+     * Exports the metrics through the platform MBean server.
+     * @param name distinguishes the metrics from other instances, e.g. the name of the vehicle or the fleet
+     * @return the name the metrics have been registered by
+     * @throws JMException if the metrics cannot be registered, e.g. the name is already taken
+     */
+    public @NotNull ObjectName registerMBean(@NotNull String name) throws JMException {
+        ObjectName objectName = new ObjectName("dashboard:type=DashboardMetrics,name=" + ObjectName.quote(name));
+        return ManagementFactory.getPlatformMBeanServer().registerMBean(this, objectName).getObjectName();
+    }
+
+    private static Map<String, Long> percentiles(LatencyHistogram.Snapshot snapshot) {
+        Map<String, Long> percentiles = new LinkedHashMap<>();
+        percentiles.put("p50", snapshot.getValueAtPercentile(50));
+        percentiles.put("p90", snapshot.getValueAtPercentile(90));
+        percentiles.put("p99", snapshot.getValueAtPercentile(99));
+        percentiles.put("p999", snapshot.getValueAtPercentile(99.9));
+        percentiles.put("max", snapshot.getMax());
+        return percentiles;
+    }
+
+    /**
+     * Immutable copy of the metrics. The counters are read one by one, so a snapshot taken while frames are being
+     * processed is not necessarily consistent among the counters.
+     */
+    public static final class Snapshot {
+
+        private final long frameCount;
+        private final long acceptedFrameCount;
+        private final Map<ValidationRule, Long> violationCounts;
+        private final Map<String, Long> parseFailureCounts;
+        private final LatencyHistogram.Snapshot parseLatency;
+        private final LatencyHistogram.Snapshot validationLatency;
+        private final LatencyHistogram.Snapshot displayLatency;
+
+        private Snapshot(DashboardMetrics metrics) {
+            Map<ValidationRule, Long> violationCounts = new EnumMap<>(ValidationRule.class);
+            for (ValidationRule rule : RULES) {
+                violationCounts.put(rule, metrics.getViolationCount(rule));
+            }
+            this.violationCounts = Collections.unmodifiableMap(violationCounts);
+            parseFailureCounts = Collections.unmodifiableMap(metrics.getParseFailureCounts());
+            long rejectedFrameCount = metrics.getRejectedFrameCount();
+            frameCount = metrics.frames.sum();
+            acceptedFrameCount = frameCount - rejectedFrameCount;
+            parseLatency = metrics.latencies[PARSE].snapshot();
+            validationLatency = metrics.latencies[VALIDATION].snapshot();
+            displayLatency = metrics.latencies[DISPLAY].snapshot();
+        }
+
+        public long getFrameCount() {
+            return frameCount;
+        }
+
+        public long getAcceptedFrameCount() {
+            return acceptedFrameCount;
+        }
+
+        public long getRejectedFrameCount() {
+            return frameCount - acceptedFrameCount;
+        }
+
+        public @NotNull Map<ValidationRule, Long> getViolationCounts() {
+            return violationCounts;
+        }
+
+        public @NotNull Map<String, Long> getParseFailureCounts() {
+            return parseFailureCounts;
+        }
+
+        public @NotNull LatencyHistogram.Snapshot getParseLatency() {
+            return parseLatency;
+        }
+
+        public @NotNull LatencyHistogram.Snapshot getValidationLatency() {
+            return validationLatency;
+        }
+
+        public @NotNull LatencyHistogram.Snapshot getDisplayLatency() {
+            return displayLatency;
+        }
+    }
+
+    /**
+     * The recording front end of a single display, used by the thread feeding the display.
+     */
+    final class Recorder {
+
+        private final int samplingInterval = latencySamplingInterval;
+        private int framesUntilSample = latencySamplingInterval;
+        /**
+         * Whether the stages of the current frame are timed, decided once per frame rather than per stage.
+         */
+        private boolean sampling = true;
+        private int unpublishedFrames;
+
+        @NotNull DashboardMetrics getMetrics() {
+            return DashboardMetrics.this;
+        }
+
+        /**
+         * Starts measuring a stage.
+         * @param stage {@link #PARSE}, {@link #VALIDATION} or {@link #DISPLAY}
+         * @return the start time to pass to {@link #stop(int, long)}, or {@link #NOT_SAMPLED}
+         */
+        long start(int stage) {
+            return sampling ? System.nanoTime() : NOT_SAMPLED;
+        }
+
+        /**
+         * Finishes measuring a stage and records its latency if it is sampled.
+         * @param stage the measured stage
+         * @param start the value returned by {@link #start(int)}
+         */
+        void stop(int stage, long start) {
+            if (start != NOT_SAMPLED) {
+                latencies[stage].record(System.nanoTime() - start);
+            }
+        }
+
+        /**
+         * Records the outcome of the validation of a frame.
+         * @param violations the bitmask of the violated rules
+         */
+        void recordFrame(int violations) {
+            // the display stage of the frame follows, so it is timed with the decision for the next frame
+            sampling = --framesUntilSample == 0;
+            if (sampling) {
+                framesUntilSample = samplingInterval;
+            }
+            if (violations == ValidationRule.NONE) {
+                if (++unpublishedFrames == samplingInterval) {
+                    publish();
+                }
+                return;
+            }
+            unpublishedFrames++;
+            publish();
+            invalidFrames.increment();
+            for (int bits = violations; bits != 0; bits &= bits - 1) {
+                DashboardMetrics.this.violations[Integer.numberOfTrailingZeros(bits)].increment();
+            }
+        }
+
+        /**
+         * Records a frame which could not be parsed.
+         * @param exception the exception reporting the malformed frame
+         */
+        void recordParseFailure(@NotNull RuntimeException exception) {
+            unpublishedFrames++;
+            publish();
+            // no lambda, the first malformed frame may arrive right after the start
+            LongAdder failures = parseFailures.get(exception.getClass());
+            if (failures == null) {
+                LongAdder added = new LongAdder();
+                failures = parseFailures.putIfAbsent(exception.getClass(), added);
+                if (failures == null) {
+                    failures = added;
+                }
+            }
+            failures.increment();
+        }
+
+        /**
+         * Publishes the accepted frames not yet added to the shared counters.
+         */
+        void flush() {
+            if (unpublishedFrames != 0) {
+                publish();
+            }
+        }
+
+        private void publish() {
+            frames.add(unpublishedFrames);
+            unpublishedFrames = 0;
+        }
+    }
+}
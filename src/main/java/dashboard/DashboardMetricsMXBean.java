@@ -0,0 +1,34 @@
+package dashboard;
+
+import java.util.Map;
+
+/**
+ * Management interface of {@link DashboardMetrics}, exported through JMX. The latencies are in nanoseconds,
+ * keyed by their percentile, e.g. "p99", and "max".
+ */
+public interface DashboardMetricsMXBean {
+
+    long getFrameCount();
+
+    long getAcceptedFrameCount();
+
+    long getRejectedFrameCount();
+
+    long getParseFailureCount();
+
+    /**
+     * @return the number of frames violating each {@link ValidationRule}, keyed by the name of the rule
+     */
+    Map<String, Long> getViolationCounts();
+
+    /**
+     * @return the number of malformed frames, keyed by the name of the exception reporting them
+     */
+    Map<String, Long> getParseFailureCounts();
+
+    Map<String, Long> getParseLatency();
+
+    Map<String, Long> getValidationLatency();
+
+    Map<String, Long> getDisplayLatency();
+}
@@ -1,7 +1,11 @@
 package dashboard;
 
+import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
+import java.nio.ByteBuffer;
+import java.util.List;
+
 public interface DataDisplay {
 
     /**
@@ -10,4 +14,77 @@ public interface DataDisplay {
      */
     void carDashboard(@Nullable String values);
 
+    /**
+     * Processes a batch of frames in input order. Invalid frames do not interrupt the batch, their rejection is
+     * reported in the result instead.
+     * @param frames the frames, each of them holding measured physical values delimited by pipe
+     * @return the outcome of every frame
+     */
+    default @NotNull BatchResult carDashboardBatch(@NotNull List<? extends CharSequence> frames) {
+        BatchResult result = new BatchResult(frames.size());
+        for (int i = 0; i < frames.size(); i++) {
+            CharSequence frame = frames.get(i);
+            try {
+                carDashboard(frame == null ? null : frame.toString());
+            } catch (RuntimeException e) {
+                result.reject(i, e);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Processes a batch of newline-separated frames in input order. A line feed after the last frame is optional,
+     * a carriage return before the line feed is ignored.
+     * @param frames the frames, each of them holding measured physical values delimited by pipe
+     * @return the outcome of every frame
+     */
+    default @NotNull BatchResult carDashboardLines(@NotNull CharSequence frames) {
+        BatchResult result = new BatchResult(FrameParser.countLines(frames, 0, frames.length()));
+        int lineStart = 0;
+        for (int i = 0; i < result.size(); i++) {
+            int lineEnd = FrameParser.nextLineEnd(frames, lineStart, frames.length());
+            try {
+                carDashboard(frames.subSequence(lineStart, FrameParser.trimLineEnd(frames, lineStart, lineEnd)).toString());
+            } catch (RuntimeException e) {
+                result.reject(i, e);
+            }
+            lineStart = lineEnd + 1;
+        }
+        return result;
+    }
+
+    /**
+     * Displays the measured physical values encoded as a binary frame.
+     * @param frame the buffer holding a frame in the format of {@link BinaryFrameCodec} at its position;
+     *              the position is advanced after the frame
+     */
+    default void carDashboardBinary(@NotNull ByteBuffer frame) {
+        DashboardData dashboardData = new DashboardData();
+        BinaryFrameCodec.decode(frame, dashboardData);
+        carDashboard(dashboardData.toFrameString());
+    }
+
+    /**
+     * Processes a batch of consecutive binary frames in input order. Invalid frames do not interrupt the batch,
+     * their rejection is reported in the result instead.
+     * @param frames the buffer holding the frames in the format of {@link BinaryFrameCodec} between its position
+     *               and its limit; the position is advanced to the limit
+     * @return the outcome of every frame
+     */
+    default @NotNull BatchResult carDashboardBinaryBatch(@NotNull ByteBuffer frames) {
+        BatchResult result = new BatchResult(BinaryFrameCodec.countFrames(frames));
+        int start = frames.position();
+        for (int i = 0; i < result.size(); i++) {
+            frames.position(start + i * BinaryFrameCodec.FRAME_LENGTH);
+            try {
+                carDashboardBinary(frames);
+            } catch (RuntimeException e) {
+                result.reject(i, e);
+            }
+        }
+        frames.position(frames.limit());
+        return result;
+    }
+
 }
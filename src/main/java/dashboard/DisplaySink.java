@@ -0,0 +1,19 @@
+package dashboard;
+
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * The display unit driving the actuators, moving hands, displaying digital values, etc.
+ */
+public interface DisplaySink {
+
+    /**
+     * Renders validated values. The values are never modified after they have been passed to the sink,
+     * so implementations may keep a reference to them, except for pooled displays, which recycle the instance
+     * once the values have fallen off their history window. {@link AsyncDisplaySink} copies the values, so it can
+     * be combined with pooled displays.
+     * @param dashboardData the parsed and validated values of all measured quantities
+     */
+    void render(@NotNull DashboardData dashboardData);
+
+}
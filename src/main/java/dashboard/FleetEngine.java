@@ -0,0 +1,298 @@
+package dashboard;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * Routes the frames of many vehicles to their displays. The vehicles are hashed by their id to a fixed set of
+ * shards, each of them served by a single dedicated thread, which owns the {@link CarDisplay} of every vehicle of
+ * the shard. The displays are never shared between threads, so they need no locking, and the frames of a vehicle
+ * are processed in the order they have been submitted.
+ * <p>
+ * Every shard has a bounded queue. When a shard falls behind, {@link #submit(String, String)} blocks until the
+ * shard catches up, while {@link #trySubmit(String, String)} refuses the frame, so the producers can choose how to
+ * apply backpressure.
+ */
+public final class FleetEngine implements AutoCloseable {
+
+    public static final int DEFAULT_QUEUE_CAPACITY = 4096;
+
+    private static final int MAX_DRAINED_FRAMES = 256;
+
+    private final Shard[] shards;
+    private volatile boolean closed;
+
+    /**
+     * Creates an engine with a shard per available processor.
+     * @param displayFactory creates the display of a vehicle when its first frame arrives, called on the thread
+     *                       of the shard
+     */
+    public FleetEngine(@NotNull Function<String, CarDisplay> displayFactory) {
+        this(Runtime.getRuntime().availableProcessors(), DEFAULT_QUEUE_CAPACITY, displayFactory);
+    }
+
+    /**
+     * @param shardCount the number of shards, i.e. threads
+     * @param queueCapacity the maximum number of pending frames per shard
+     * @param displayFactory creates the display of a vehicle when its first frame arrives, called on the thread
+     *                       of the shard
+     */
+    public FleetEngine(int shardCount, int queueCapacity, @NotNull Function<String, CarDisplay> displayFactory) {
+        if (shardCount < 1) {
+            throw new IllegalArgumentException("The number of shards shall be positive.");
+        }
+        if (queueCapacity < 1) {
+            throw new IllegalArgumentException("The capacity of the queues shall be positive.");
+        }
+        shards = new Shard[shardCount];
+        for (int i = 0; i < shardCount; i++) {
+            shards[i] = new Shard(i, queueCapacity, displayFactory);
+        }
+        for (Shard shard : shards) {
+            shard.thread.start();
+        }
+    }
+
+    /**
+     * Queues a frame of a vehicle, waiting for space in the queue of its shard if necessary.
+     * @param vehicleId the id of the vehicle
+     * @param values the measured physical values delimited by pipe, i.e. '|' characters
+     * @throws InterruptedException if interrupted while waiting
+     */
+    public void submit(@NotNull String vehicleId, @NotNull String values) throws InterruptedException {
+        checkOpen();
+        shards[shardOf(vehicleId)].queue.put(new Frame(vehicleId, values));
+    }
+
+    /**
+     * Queues a frame of a vehicle if the queue of its shard is not full.
+     * @param vehicleId the id of the vehicle
+     * @param values the measured physical values delimited by pipe, i.e. '|' characters
+     * @return whether the frame has been queued
+     */
+    public boolean trySubmit(@NotNull String vehicleId, @NotNull String values) {
+        checkOpen();
+        Shard shard = shards[shardOf(vehicleId)];
+        if (shard.queue.offer(new Frame(vehicleId, values))) {
+            return true;
+        }
+        shard.refused.increment();
+        return false;
+    }
+
+    /**
+     * @param vehicleId the id of the vehicle
+     * @return the index of the shard processing the frames of the vehicle
+     */
+    public int shardOf(@NotNull String vehicleId) {
+        int hash = vehicleId.hashCode();
+        return Math.floorMod(hash ^ (hash >>> 16), shards.length);
+    }
+
+    public int getShardCount() {
+        return shards.length;
+    }
+
+    /**
+     * @param shard the index of the shard
+     * @return the number of frames waiting in the queue of the shard
+     */
+    public int getQueueDepth(int shard) {
+        return shards[shard].queue.size();
+    }
+
+    /**
+     * @param shard the index of the shard
+     * @return the number of vehicles whose display is owned by the shard
+     */
+    public int getVehicleCount(int shard) {
+        return shards[shard].vehicleCount;
+    }
+
+    /**
+     * @param shard the index of the shard
+     * @return the number of frames accepted and displayed by the shard
+     */
+    public long getAcceptedCount(int shard) {
+        return shards[shard].accepted.sum();
+    }
+
+    /**
+     * @param shard the index of the shard
+     * @return the number of frames which were malformed or violated a plausibility rule
+     */
+    public long getRejectedCount(int shard) {
+        return shards[shard].rejected.sum();
+    }
+
+    /**
+     * @param shard the index of the shard
+     * @return the number of frames refused by {@link #trySubmit(String, String)} because the queue was full
+     */
+    public long getRefusedCount(int shard) {
+        return shards[shard].refused.sum();
+    }
+
+    /**
+     * @param shard the index of the shard
+     * @return the number of frames which were not processed because the engine had been closed
+     */
+    public long getDroppedCount(int shard) {
+        return shards[shard].dropped.sum();
+    }
+
+    /**
+     * Processes the frames queued so far and stops the shards.
+     */
+    @Override
+    public void close() {
+        closed = true;
+        boolean interrupted = false;
+        for (Shard shard : shards) {
+            while (true) {
+                try {
+                    shard.queue.put(Frame.END);
+                    break;
+                } catch (InterruptedException e) {
+                    interrupted = true;
+                }
+            }
+        }
+        for (Shard shard : shards) {
+            while (shard.thread.isAlive()) {
+                try {
+                    shard.thread.join();
+                } catch (InterruptedException e) {
+                    interrupted = true;
+                }
+            }
+            // frames queued concurrently with closing are not processed any more
+            shard.dropped.add(shard.queue.size());
+            shard.queue.clear();
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void checkOpen() {
+        if (closed) {
+            throw new IllegalStateException("The fleet engine is closed.");
+        }
+    }
+
+    private static final class Frame {
+
+        static final Frame END = new Frame("", "");
+
+        final String vehicleId;
+        final String values;
+
+        Frame(String vehicleId, String values) {
+            this.vehicleId = vehicleId;
+            this.values = values;
+        }
+    }
+
+    private static final class Shard {
+
+        final BlockingQueue<Frame> queue;
+        final Thread thread;
+        private final Function<String, CarDisplay> displayFactory;
+        private final Map<String, Vehicle> vehicles = new HashMap<>();
+        // the instrumented vehicles which have processed frames since their metrics were flushed the last time
+        private final List<Vehicle> unflushedVehicles = new ArrayList<>();
+        volatile int vehicleCount;
+
+        final LongAdder accepted = new LongAdder();
+        final LongAdder rejected = new LongAdder();
+        final LongAdder refused = new LongAdder();
+        final LongAdder dropped = new LongAdder();
+
+        Shard(int index, int queueCapacity, Function<String, CarDisplay> displayFactory) {
+            queue = new ArrayBlockingQueue<>(queueCapacity);
+            this.displayFactory = displayFactory;
+            thread = new Thread(this::processLoop, "fleet-shard-" + index);
+            thread.setDaemon(true);
+        }
+
+        private void processLoop() {
+            List<Frame> frames = new ArrayList<>(MAX_DRAINED_FRAMES);
+            while (true) {
+                if (!unflushedVehicles.isEmpty() && queue.isEmpty()) {
+                    // going idle, so the counters of the displays shall not lag behind any more
+                    flushMetrics();
+                }
+                frames.clear();
+                try {
+                    frames.add(queue.take());
+                } catch (InterruptedException e) {
+                    // only closing the engine stops the shard
+                    continue;
+                }
+                // taking the frames in bulk saves locking the queue for every frame
+                queue.drainTo(frames, MAX_DRAINED_FRAMES - 1);
+                for (int i = 0; i < frames.size(); i++) {
+                    Frame frame = frames.get(i);
+                    if (frame == Frame.END) {
+                        dropped.add(frames.size() - i - 1);
+                        flushMetrics();
+                        return;
+                    }
+                    process(frame);
+                }
+            }
+        }
+
+        private void flushMetrics() {
+            for (int i = 0; i < unflushedVehicles.size(); i++) {
+                Vehicle vehicle = unflushedVehicles.get(i);
+                vehicle.display.flushMetrics();
+                vehicle.unflushed = false;
+            }
+            unflushedVehicles.clear();
+        }
+
+        private void process(Frame frame) {
+            try {
+                Vehicle vehicle = vehicles.get(frame.vehicleId);
+                if (vehicle == null) {
+                    vehicle = new Vehicle(displayFactory.apply(frame.vehicleId));
+                    vehicles.put(frame.vehicleId, vehicle);
+                    vehicleCount = vehicles.size();
+                }
+                if (vehicle.instrumented && !vehicle.unflushed) {
+                    vehicle.unflushed = true;
+                    unflushedVehicles.add(vehicle);
+                }
+                if (vehicle.display.tryCarDashboard(frame.values) == ValidationRule.NONE) {
+                    accepted.increment();
+                } else {
+                    rejected.increment();
+                }
+            } catch (RuntimeException e) {
+                rejected.increment();
+            }
+        }
+    }
+
+    private static final class Vehicle {
+
+        final CarDisplay display;
+        final boolean instrumented;
+        boolean unflushed;
+
+        Vehicle(CarDisplay display) {
+            this.display = display;
+            instrumented = display.getMetrics() != null;
+        }
+    }
+}
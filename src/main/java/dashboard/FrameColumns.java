@@ -0,0 +1,128 @@
+package dashboard;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Fixed capacity struct-of-arrays storage of frames, one primitive column per measured quantity, e.g. for the
+ * offline validation of recorded sessions by {@link RuleEngine#evaluate(FrameColumns, int, int, int[])}.
+ * The gears are stored as their ordinals.
+ */
+public final class FrameColumns {
+
+    private static final Gear[] GEARS = Gear.values();
+
+    final int[] speeds;
+    final int[] rpms;
+    final float[] accelerations;
+    final byte[] gears;
+    final boolean[] headlights;
+    final boolean[] lowOilLevel;
+    final boolean[] engineStarted;
+
+    private int size;
+
+    /**
+     * @param capacity the maximum number of frames
+     */
+    public FrameColumns(int capacity) {
+        if (capacity < 0) {
+            throw new IllegalArgumentException("The capacity shall not be negative.");
+        }
+        speeds = new int[capacity];
+        rpms = new int[capacity];
+        accelerations = new float[capacity];
+        gears = new byte[capacity];
+        headlights = new boolean[capacity];
+        lowOilLevel = new boolean[capacity];
+        engineStarted = new boolean[capacity];
+    }
+
+    public int capacity() {
+        return speeds.length;
+    }
+
+    /**
+     * @return the number of stored frames
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Appends the values of a frame.
+     * @param dashboardData the parsed values
+     * @throws IllegalStateException if the columns are full
+     */
+    public void add(@NotNull DashboardData dashboardData) {
+        if (size == speeds.length) {
+            throw new IllegalStateException("The columns are full.");
+        }
+        // read everything which may fail before the modification starts
+        byte gear = (byte) dashboardData.getGear().ordinal();
+        speeds[size] = dashboardData.getSpeed();
+        rpms[size] = dashboardData.getRpm();
+        accelerations[size] = dashboardData.getAcceleration();
+        gears[size] = gear;
+        headlights[size] = dashboardData.isHeadlights();
+        lowOilLevel[size] = dashboardData.isLowOilLevel();
+        engineStarted[size] = dashboardData.isEngineStarted();
+        size++;
+    }
+
+    /**
+     * Decodes and appends every binary frame of a buffer.
+     * @param frames the buffer holding the frames in the format of {@link BinaryFrameCodec} between its position
+     *               and its limit; the position is advanced past the decoded frames
+     * @throws IllegalArgumentException if a frame is malformed, the frames before it are still appended
+     * @throws IllegalStateException if the frames do not fit into the columns, nothing is appended then
+     */
+    public void addBinary(@NotNull ByteBuffer frames) {
+        int count = BinaryFrameCodec.countFrames(frames);
+        if (count > speeds.length - size) {
+            throw new IllegalStateException("The columns are full.");
+        }
+        DashboardData dashboardData = new DashboardData();
+        for (int i = 0; i < count; i++) {
+            BinaryFrameCodec.decode(frames, dashboardData);
+            add(dashboardData);
+        }
+    }
+
+    /**
+     * Materializes a stored frame.
+     * @param index the position of the frame
+     * @return a new instance holding the values of the frame
+     */
+    public @NotNull DashboardData get(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", size: " + size);
+        }
+        DashboardData dashboardData = new DashboardData();
+        copy(index, dashboardData);
+        return dashboardData;
+    }
+
+    /**
+     * Copies a stored frame without checking the index against the size.
+     * @param index the position of the frame
+     * @param target the object to store the values of the frame into
+     */
+    void copy(int index, @NotNull DashboardData target) {
+        target.setSpeed(speeds[index]);
+        target.setRpm(rpms[index]);
+        target.setAcceleration(accelerations[index]);
+        target.setGear(GEARS[gears[index]]);
+        target.setHeadlights(headlights[index]);
+        target.setLowOilLevel(lowOilLevel[index]);
+        target.setEngineStarted(engineStarted[index]);
+    }
+
+    /**
+     * Removes every frame, keeping the capacity.
+     */
+    public void clear() {
+        size = 0;
+    }
+}
@@ -0,0 +1,19 @@
+package dashboard;
+
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Gets notified about the outcome of every parsed frame, on the thread feeding the display.
+ */
+public interface FrameListener {
+
+    /**
+     * Called after the validation of a frame, before the values are displayed. The values must not be modified,
+     * and pooled displays may recycle the instance as soon as the call returns.
+     * @param dashboardData the parsed values
+     * @param violations the bitmask of every violated {@link ValidationRule}, {@link ValidationRule#NONE} if
+     *                   the values have been accepted
+     */
+    void onFrame(@NotNull DashboardData dashboardData, int violations);
+
+}
@@ -0,0 +1,368 @@
+package dashboard;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Single-pass parser of pipe-delimited telemetry frames. The fields are decoded straight into the primitive
+ * properties of a {@link DashboardData} without splitting the frame into intermediate strings.
+ * <p>
+ * The error semantics are identical to splitting the frame by '|' and parsing the parts with
+ * {@link Integer#parseInt(String)}, {@link Float#parseFloat(String)} and {@link Boolean#parseBoolean(String)}:
+ * trailing empty fields are ignored when counting the fields and the same exception types are thrown.
+ * <p>
+ * The static methods working on {@link CharSequence} instances are thread-safe. The byte based methods reuse
+ * an internal view of the frame, so a parser instance must not be shared between threads.
+ */
+public final class FrameParser {
+
+    static final int NUMBER_OF_PARAMETERS = 7;
+
+    private static final char DELIMITER = '|';
+    private static final char LINE_FEED = '\n';
+    private static final char CARRIAGE_RETURN = '\r';
+
+    /**
+     * Powers of ten which are exactly representable as float, used for the fast path of float parsing.
+     */
+    private static final float[] FLOAT_POWERS_OF_TEN = {
+            1e0f, 1e1f, 1e2f, 1e3f, 1e4f, 1e5f, 1e6f, 1e7f, 1e8f, 1e9f, 1e10f
+    };
+
+    /**
+     * Largest mantissa which is exactly representable as float, i.e. 2^24.
+     */
+    private static final int MAX_EXACT_FLOAT_MANTISSA = 1 << 24;
+
+    private final ByteFrame byteFrame = new ByteFrame();
+
+    /**
+     * Parses a frame stored as ASCII bytes in an array.
+     * @param frame the array holding the frame
+     * @param offset the index of the first byte of the frame
+     * @param length the number of bytes of the frame
+     * @param target the object to store the parsed values into
+     */
+    public void parse(byte @NotNull [] frame, int offset, int length, @NotNull DashboardData target) {
+        byteFrame.wrap(frame, offset, length);
+        try {
+            parse(byteFrame, 0, length, target);
+        } finally {
+            byteFrame.clear();
+        }
+    }
+
+    /**
+     * Parses a frame stored as ASCII bytes between the position and the limit of a buffer.
+     * The position of the buffer is not modified.
+     * @param frame the buffer holding the frame
+     * @param target the object to store the parsed values into
+     */
+    public void parse(@NotNull ByteBuffer frame, @NotNull DashboardData target) {
+        int length = frame.remaining();
+        byteFrame.wrap(frame, frame.position(), length);
+        try {
+            parse(byteFrame, 0, length, target);
+        } finally {
+            byteFrame.clear();
+        }
+    }
+
+    /**
+     * Parses a whole frame.
+     * @param frame the measured physical values delimited by pipe, i.e. '|' characters
+     * @param target the object to store the parsed values into
+     */
+    public static void parse(@Nullable CharSequence frame, @NotNull DashboardData target) {
+        if (frame == null) {
+            throw new IllegalArgumentException("The input shall not be null.");
+        }
+        parse(frame, 0, frame.length(), target);
+    }
+
+    /**
+     * Parses a frame stored as a region of a character sequence.
+     * @param frame the sequence holding the frame
+     * @param start the index of the first character of the frame
+     * @param end the index after the last character of the frame
+     * @param target the object to store the parsed values into
+     */
+    public static void parse(@NotNull CharSequence frame, int start, int end, @NotNull DashboardData target) {
+        if (countFields(frame, start, end) != NUMBER_OF_PARAMETERS) {
+            throw new IllegalArgumentException("Unexpected number of parameters in the input.");
+        }
+
+        int fieldStart = start;
+        int fieldEnd = nextDelimiter(frame, fieldStart, end);
+        target.setSpeed(parseInt(frame, fieldStart, fieldEnd));
+
+        fieldStart = fieldEnd + 1;
+        fieldEnd = nextDelimiter(frame, fieldStart, end);
+        target.setRpm(parseInt(frame, fieldStart, fieldEnd));
+
+        fieldStart = fieldEnd + 1;
+        fieldEnd = nextDelimiter(frame, fieldStart, end);
+        target.setAcceleration(parseFloat(frame, fieldStart, fieldEnd));
+
+        fieldStart = fieldEnd + 1;
+        fieldEnd = nextDelimiter(frame, fieldStart, end);
+        target.setGear(parseGear(frame, fieldStart, fieldEnd));
+
+        fieldStart = fieldEnd + 1;
+        fieldEnd = nextDelimiter(frame, fieldStart, end);
+        target.setHeadlights(parseBoolean(frame, fieldStart, fieldEnd));
+
+        fieldStart = fieldEnd + 1;
+        fieldEnd = nextDelimiter(frame, fieldStart, end);
+        target.setLowOilLevel(parseBoolean(frame, fieldStart, fieldEnd));
+
+        fieldStart = fieldEnd + 1;
+        fieldEnd = nextDelimiter(frame, fieldStart, end);
+        target.setEngineStarted(parseBoolean(frame, fieldStart, fieldEnd));
+    }
+
+    /**
+     * Counts the fields of a frame the same way as {@link String#split(String)} does, i.e. trailing empty fields
+     * are not counted, unless the frame is empty.
+     */
+    static int countFields(@NotNull CharSequence frame, int start, int end) {
+        if (start == end) {
+            return 1;
+        }
+
+        int effectiveEnd = end;
+        while (effectiveEnd > start && frame.charAt(effectiveEnd - 1) == DELIMITER) {
+            effectiveEnd--;
+        }
+        if (effectiveEnd == start) {
+            return 0;
+        }
+
+        int fields = 1;
+        for (int i = start; i < effectiveEnd; i++) {
+            if (frame.charAt(i) == DELIMITER) {
+                fields++;
+            }
+        }
+        return fields;
+    }
+
+    static int nextDelimiter(@NotNull CharSequence frame, int from, int end) {
+        for (int i = from; i < end; i++) {
+            if (frame.charAt(i) == DELIMITER) {
+                return i;
+            }
+        }
+        return end;
+    }
+
+    /**
+     * Counts the newline-separated lines of a region. A line feed after the last line does not start a new line.
+     */
+    static int countLines(@NotNull CharSequence lines, int start, int end) {
+        if (start == end) {
+            return 0;
+        }
+        int count = lines.charAt(end - 1) == LINE_FEED ? 0 : 1;
+        for (int i = start; i < end; i++) {
+            if (lines.charAt(i) == LINE_FEED) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * @return the index of the line feed terminating the line starting at the given index, or the end of the region
+     */
+    static int nextLineEnd(@NotNull CharSequence lines, int from, int end) {
+        for (int i = from; i < end; i++) {
+            if (lines.charAt(i) == LINE_FEED) {
+                return i;
+            }
+        }
+        return end;
+    }
+
+    /**
+     * @return the end of the line without the carriage return preceding its line feed
+     */
+    static int trimLineEnd(@NotNull CharSequence lines, int lineStart, int lineEnd) {
+        return lineEnd > lineStart && lines.charAt(lineEnd - 1) == CARRIAGE_RETURN ? lineEnd - 1 : lineEnd;
+    }
+
+    /**
+     * Parses a decimal integer with the same rules as {@link Integer#parseInt(String)}.
+     */
+    static int parseInt(@NotNull CharSequence frame, int start, int end) {
+        if (start == end) {
+            throw numberFormatException(frame, start, end);
+        }
+
+        boolean negative = false;
+        int limit = -Integer.MAX_VALUE;
+        int i = start;
+        char first = frame.charAt(i);
+        if (first < '0') {
+            if (first == '-') {
+                negative = true;
+                limit = Integer.MIN_VALUE;
+            } else if (first != '+') {
+                throw numberFormatException(frame, start, end);
+            }
+            if (end - start == 1) {
+                throw numberFormatException(frame, start, end);
+            }
+            i++;
+        }
+
+        // accumulating negatively avoids overflow when parsing Integer.MIN_VALUE
+        int multiplicationLimit = limit / 10;
+        int result = 0;
+        while (i < end) {
+            int digit = Character.digit(frame.charAt(i++), 10);
+            if (digit < 0 || result < multiplicationLimit) {
+                throw numberFormatException(frame, start, end);
+            }
+            result *= 10;
+            if (result < limit + digit) {
+                throw numberFormatException(frame, start, end);
+            }
+            result -= digit;
+        }
+        return negative ? result : -result;
+    }
+
+    /**
+     * Parses a float with the same result as {@link Float#parseFloat(String)}. Plain decimals with at most seven
+     * significant digits are converted exactly without allocation, anything else falls back to the JDK.
+     */
+    static float parseFloat(@NotNull CharSequence frame, int start, int end) {
+        int i = start;
+        boolean negative = false;
+        if (i < end) {
+            char first = frame.charAt(i);
+            if (first == '-' || first == '+') {
+                negative = first == '-';
+                i++;
+            }
+        }
+
+        int mantissa = 0;
+        int digits = 0;
+        int fractionDigits = -1;
+        for (; i < end; i++) {
+            char c = frame.charAt(i);
+            if (c >= '0' && c <= '9') {
+                mantissa = mantissa * 10 + (c - '0');
+                digits++;
+                if (fractionDigits >= 0) {
+                    fractionDigits++;
+                }
+                if (mantissa >= MAX_EXACT_FLOAT_MANTISSA || fractionDigits >= FLOAT_POWERS_OF_TEN.length) {
+                    return parseFloatSlowly(frame, start, end);
+                }
+            } else if (c == '.' && fractionDigits < 0) {
+                fractionDigits = 0;
+            } else {
+                return parseFloatSlowly(frame, start, end);
+            }
+        }
+        if (digits == 0) {
+            return parseFloatSlowly(frame, start, end);
+        }
+
+        // both operands are exact, so the division is correctly rounded like Float.parseFloat
+        float value = fractionDigits > 0 ? mantissa / FLOAT_POWERS_OF_TEN[fractionDigits] : mantissa;
+        return negative ? -value : value;
+    }
+
+    private static float parseFloatSlowly(@NotNull CharSequence frame, int start, int end) {
+        return Float.parseFloat(frame.subSequence(start, end).toString());
+    }
+
+    /**
+     * Parses a gear with the same rules as {@link Gear#byValue(String)}.
+     */
+    static Gear parseGear(@NotNull CharSequence frame, int start, int end) {
+        if (end - start != 1) {
+            throw new IllegalArgumentException();
+        }
+        return Gear.byChar(frame.charAt(start));
+    }
+
+    /**
+     * Parses a boolean with the same rules as {@link Boolean#parseBoolean(String)}.
+     */
+    static boolean parseBoolean(@NotNull CharSequence frame, int start, int end) {
+        return end - start == 4 &&
+                (frame.charAt(start) | 0x20) == 't' &&
+                (frame.charAt(start + 1) | 0x20) == 'r' &&
+                (frame.charAt(start + 2) | 0x20) == 'u' &&
+                (frame.charAt(start + 3) | 0x20) == 'e';
+    }
+
+    private static NumberFormatException numberFormatException(@NotNull CharSequence frame, int start, int end) {
+        return new NumberFormatException("For input string: \"" + frame.subSequence(start, end) + "\"");
+    }
+
+    /**
+     * Reusable character view of ASCII bytes stored in an array or a buffer.
+     */
+    static final class ByteFrame implements CharSequence {
+
+        private byte[] array;
+        private ByteBuffer buffer;
+        private int offset;
+        private int length;
+
+        void wrap(byte[] array, int offset, int length) {
+            this.array = array;
+            this.buffer = null;
+            this.offset = offset;
+            this.length = length;
+        }
+
+        void wrap(ByteBuffer buffer, int offset, int length) {
+            this.array = null;
+            this.buffer = buffer;
+            this.offset = offset;
+            this.length = length;
+        }
+
+        void clear() {
+            array = null;
+            buffer = null;
+        }
+
+        @Override
+        public int length() {
+            return length;
+        }
+
+        @Override
+        public char charAt(int index) {
+            if (array != null) {
+                return (char) (array[offset + index] & 0xFF);
+            }
+            return (char) (buffer.get(offset + index) & 0xFF);
+        }
+
+        @Override
+        public @NotNull CharSequence subSequence(int start, int end) {
+            byte[] bytes = new byte[end - start];
+            for (int i = start; i < end; i++) {
+                bytes[i - start] = (byte) charAt(i);
+            }
+            return new String(bytes, StandardCharsets.ISO_8859_1);
+        }
+
+        @Override
+        public @NotNull String toString() {
+            return subSequence(0, length).toString();
+        }
+    }
+}
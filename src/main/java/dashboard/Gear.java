@@ -1,7 +1,5 @@
 package dashboard;
 
-import java.util.Arrays;
-
 public enum Gear {
     P("P", true, false, 0, 0, 0, 8000),
     R("R", true, true, -20, 0, 850, 8000),
@@ -14,6 +12,19 @@ public enum Gear {
     G5("5", false, true, 45, 240, 1050, 8000),
     G6("6", false, true, 60, 350, 1100, 8000);
 
+    /**
+     * Case-insensitive lookup table of the gears indexed by their single character ASCII value.
+     */
+    private static final Gear[] GEARS_BY_CHAR = new Gear[128];
+
+    static {
+        for (Gear gear : values()) {
+            char value = gear.value.charAt(0);
+            GEARS_BY_CHAR[Character.toUpperCase(value)] = gear;
+            GEARS_BY_CHAR[Character.toLowerCase(value)] = gear;
+        }
+    }
+
     private final String value;
     private final boolean applicableToAutomatic;
     private final boolean applicableToManual;
@@ -45,10 +56,39 @@ public enum Gear {
      * @return the associated gear
      */
     public static Gear byValue(String value) {
-        return Arrays.stream(values())
-                .filter(gear -> gear.value.equalsIgnoreCase(value))
-                .findFirst()
-                .orElseThrow(IllegalArgumentException::new);
+        if (value == null || value.length() != 1) {
+            throw new IllegalArgumentException();
+        }
+        return byChar(value.charAt(0));
+    }
+
+    /**
+     * Parses a gear based on its single character value.
+     * @param value the gear as a character
+     * @return the associated gear
+     */
+    public static Gear byChar(char value) {
+        Gear gear = value < GEARS_BY_CHAR.length ? GEARS_BY_CHAR[value] : null;
+        if (gear == null) {
+            throw new IllegalArgumentException();
+        }
+        return gear;
+    }
+
+    /**
+     * Parses a gear based on its single character value encoded as an ASCII byte.
+     * @param value the gear as a byte
+     * @return the associated gear
+     */
+    public static Gear byByte(byte value) {
+        return byChar((char) (value & 0xFF));
+    }
+
+    /**
+     * @return the gear in textual format
+     */
+    public String getValue() {
+        return value;
     }
 
     public boolean isApplicableToAutomatic() {
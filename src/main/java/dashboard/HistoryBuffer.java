@@ -0,0 +1,362 @@
+package dashboard;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.RandomAccess;
+
+/**
+ * Fixed length circular buffer of the most recent values. When the buffer is full, adding a value overwrites
+ * the oldest one, so every operation takes constant time regardless of the length of the window.
+ * <p>
+ * The values are stored column by column in primitive arrays, optionally off-heap, so even windows of millions
+ * of samples take only a few bytes per sample and no objects. {@link DashboardData} instances are only
+ * materialized when they are asked for.
+ * <p>
+ * The buffer has a single writer thread. The writer publishes every modification through a sequence lock,
+ * so any number of reader threads can take consistent snapshots without locking and without slowing the writer
+ * down. The methods which are safe to call from reader threads are marked as such, the others shall only be
+ * called by the writer thread.
+ */
+public final class HistoryBuffer {
+
+    private static final VarHandle SEQUENCE;
+    private static final Gear[] GEARS = Gear.values();
+
+    static {
+        try {
+            SEQUENCE = MethodHandles.lookup().findVarHandle(HistoryBuffer.class, "sequence", long.class);
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    private final HistoryColumns columns;
+    private final List<DashboardData> view = new View();
+    private final RollingStatistics accelerationStatistics;
+
+    /**
+     * Index of the oldest value.
+     */
+    private int head;
+    private int size;
+
+    /**
+     * Odd while the writer is modifying the buffer, incremented twice by every modification.
+     */
+    @SuppressWarnings("unused")
+    private long sequence;
+
+    /**
+     * Creates a buffer on the heap.
+     * @param length the length of the window
+     */
+    public HistoryBuffer(int length) {
+        this(length, false);
+    }
+
+    /**
+     * @param length the length of the window
+     * @param offHeap whether to store the values outside of the heap, e.g. for very long windows
+     */
+    public HistoryBuffer(int length, boolean offHeap) {
+        if (length < 1) {
+            throw new IllegalArgumentException("The length of the history shall be positive.");
+        }
+        columns = HistoryColumns.allocate(length, offHeap);
+        accelerationStatistics = new RollingStatistics();
+    }
+
+    /**
+     * @return the length of the window
+     */
+    public int length() {
+        return columns.length;
+    }
+
+    /**
+     * @return the number of stored values
+     */
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * @param index the position of the value in the window, 0 being the oldest one
+     * @return the speed at the given position
+     */
+    public int getSpeed(int index) {
+        return columns.speed(checkedPhysicalIndex(index));
+    }
+
+    public int getRpm(int index) {
+        return columns.rpm(checkedPhysicalIndex(index));
+    }
+
+    public float getAcceleration(int index) {
+        return columns.acceleration(checkedPhysicalIndex(index));
+    }
+
+    public @NotNull Gear getGear(int index) {
+        return GEARS[columns.gear(checkedPhysicalIndex(index))];
+    }
+
+    public boolean isHeadlights(int index) {
+        return columns.flag(HistoryColumns.HEADLIGHTS, checkedPhysicalIndex(index));
+    }
+
+    public boolean isLowOilLevel(int index) {
+        return columns.flag(HistoryColumns.LOW_OIL_LEVEL, checkedPhysicalIndex(index));
+    }
+
+    public boolean isEngineStarted(int index) {
+        return columns.flag(HistoryColumns.ENGINE_STARTED, checkedPhysicalIndex(index));
+    }
+
+    /**
+     * Materializes a stored value.
+     * @param index the position of the value in the window, 0 being the oldest one
+     * @return a new instance holding the value at the given position
+     */
+    public @NotNull DashboardData get(int index) {
+        return materialize(checkedPhysicalIndex(index));
+    }
+
+    /**
+     * @return a new instance holding the most recently added value, or null if the buffer is empty
+     */
+    public @Nullable DashboardData latest() {
+        return size == 0 ? null : materialize(physicalIndex(size - 1));
+    }
+
+    /**
+     * @return the most recently added speed
+     * @throws IllegalStateException if the buffer is empty
+     */
+    public int latestSpeed() {
+        if (size == 0) {
+            throw new IllegalStateException("The history is empty.");
+        }
+        return columns.speed(physicalIndex(size - 1));
+    }
+
+    /**
+     * @return the incrementally maintained statistics of the acceleration over the whole window
+     */
+    public @NotNull RollingStatistics getAccelerationStatistics() {
+        return accelerationStatistics;
+    }
+
+    /**
+     * @param count the number of the latest values, at most the size of the buffer
+     * @return the lowest speed among the latest values
+     */
+    public int minSpeed(int count) {
+        checkCount(count);
+        int min = Integer.MAX_VALUE;
+        for (int i = size - count; i < size; i++) {
+            min = Math.min(min, columns.speed(physicalIndex(i)));
+        }
+        return min;
+    }
+
+    /**
+     * @param count the number of the latest values, at most the size of the buffer
+     * @return the highest speed among the latest values
+     */
+    public int maxSpeed(int count) {
+        checkCount(count);
+        int max = Integer.MIN_VALUE;
+        for (int i = size - count; i < size; i++) {
+            max = Math.max(max, columns.speed(physicalIndex(i)));
+        }
+        return max;
+    }
+
+    /**
+     * @param count the number of the latest values, at most the size of the buffer
+     * @return the average speed of the latest values
+     */
+    public double meanSpeed(int count) {
+        checkCount(count);
+        long sum = 0;
+        for (int i = size - count; i < size; i++) {
+            sum += columns.speed(physicalIndex(i));
+        }
+        return (double) sum / count;
+    }
+
+    /**
+     * @param count the number of the latest values, at most the size of the buffer
+     * @return the number of the latest values with low oil level
+     */
+    public int countLowOilLevel(int count) {
+        checkCount(count);
+        int from = physicalIndex(size - count);
+        int to = from + count;
+        if (to <= columns.length) {
+            return columns.countFlags(HistoryColumns.LOW_OIL_LEVEL, from, to);
+        }
+        return columns.countFlags(HistoryColumns.LOW_OIL_LEVEL, from, columns.length) +
+                columns.countFlags(HistoryColumns.LOW_OIL_LEVEL, 0, to - columns.length);
+    }
+
+    /**
+     * @param count the number of the latest values, at most the size of the buffer
+     * @return a read-only view of the latest values from the oldest to the latest one, materializing the values
+     * on access
+     */
+    public @NotNull List<DashboardData> latestValues(int count) {
+        checkCount(count);
+        return view.subList(size - count, size);
+    }
+
+    /**
+     * Appends a value, evicting the oldest one if the buffer is full. Only the primitive values are stored,
+     * the instance itself is not retained.
+     * @param dashboardData the value to store
+     */
+    void add(@NotNull DashboardData dashboardData) {
+        // read everything which may fail before the modification starts
+        byte gear = (byte) dashboardData.getGear().ordinal();
+
+        long sequence = (long) SEQUENCE.getOpaque(this);
+        SEQUENCE.setOpaque(this, sequence + 1);
+        VarHandle.storeStoreFence();
+
+        int index;
+        if (size < columns.length) {
+            index = physicalIndex(head, size);
+            size++;
+            accelerationStatistics.add(dashboardData.getAcceleration());
+        } else {
+            index = head;
+            head = head + 1 == columns.length ? 0 : head + 1;
+            accelerationStatistics.replace(columns.acceleration(index), dashboardData.getAcceleration());
+        }
+        columns.speed(index, dashboardData.getSpeed());
+        columns.rpm(index, dashboardData.getRpm());
+        columns.acceleration(index, dashboardData.getAcceleration());
+        columns.gear(index, gear);
+        columns.flag(HistoryColumns.HEADLIGHTS, index, dashboardData.isHeadlights());
+        columns.flag(HistoryColumns.LOW_OIL_LEVEL, index, dashboardData.isLowOilLevel());
+        columns.flag(HistoryColumns.ENGINE_STARTED, index, dashboardData.isEngineStarted());
+
+        SEQUENCE.setRelease(this, sequence + 2);
+    }
+
+    /**
+     * Takes a consistent copy of the window. Safe to call from reader threads.
+     * @return an unmodifiable copy of the stored values from the oldest to the latest one
+     */
+    public @NotNull List<DashboardData> snapshot() {
+        while (true) {
+            long sequence = (long) SEQUENCE.getAcquire(this);
+            if ((sequence & 1) == 0) {
+                int head = this.head;
+                int size = Math.min(this.size, columns.length);
+                DashboardData[] copy = new DashboardData[size];
+                for (int i = 0; i < size; i++) {
+                    copy[i] = materialize(physicalIndex(head, i));
+                }
+                VarHandle.loadLoadFence();
+                if ((long) SEQUENCE.getOpaque(this) == sequence) {
+                    return Collections.unmodifiableList(Arrays.asList(copy));
+                }
+            }
+            Thread.onSpinWait();
+        }
+    }
+
+    /**
+     * Reads the most recently added value consistently. Safe to call from reader threads.
+     * @return a new instance holding the most recently added value, or null if the buffer is empty
+     */
+    public @Nullable DashboardData readLatest() {
+        DashboardData latest = new DashboardData();
+        while (true) {
+            long sequence = (long) SEQUENCE.getAcquire(this);
+            if ((sequence & 1) == 0) {
+                int size = this.size;
+                if (size > 0) {
+                    materialize(physicalIndex(head, Math.min(size, columns.length) - 1), latest);
+                }
+                VarHandle.loadLoadFence();
+                if ((long) SEQUENCE.getOpaque(this) == sequence) {
+                    return size == 0 ? null : latest;
+                }
+            }
+            Thread.onSpinWait();
+        }
+    }
+
+    /**
+     * @return a read-only view of the stored values from the oldest to the latest one, reflecting later changes
+     * and materializing the values on access
+     */
+    public @NotNull List<DashboardData> asList() {
+        return view;
+    }
+
+    private DashboardData materialize(int physicalIndex) {
+        DashboardData dashboardData = new DashboardData();
+        materialize(physicalIndex, dashboardData);
+        return dashboardData;
+    }
+
+    private void materialize(int physicalIndex, DashboardData target) {
+        target.setSpeed(columns.speed(physicalIndex));
+        target.setRpm(columns.rpm(physicalIndex));
+        target.setAcceleration(columns.acceleration(physicalIndex));
+        // a torn read may see any byte, which must not fail before the sequence is validated
+        target.setGear(GEARS[(columns.gear(physicalIndex) & 0xFF) % GEARS.length]);
+        target.setHeadlights(columns.flag(HistoryColumns.HEADLIGHTS, physicalIndex));
+        target.setLowOilLevel(columns.flag(HistoryColumns.LOW_OIL_LEVEL, physicalIndex));
+        target.setEngineStarted(columns.flag(HistoryColumns.ENGINE_STARTED, physicalIndex));
+    }
+
+    private void checkCount(int count) {
+        if (count < 1 || count > size) {
+            throw new IndexOutOfBoundsException("Count: " + count + ", size: " + size);
+        }
+    }
+
+    private int checkedPhysicalIndex(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", size: " + size);
+        }
+        return physicalIndex(index);
+    }
+
+    private int physicalIndex(int index) {
+        return physicalIndex(head, index);
+    }
+
+    private int physicalIndex(int head, int index) {
+        int physicalIndex = head + index;
+        return physicalIndex < columns.length ? physicalIndex : physicalIndex - columns.length;
+    }
+
+    private final class View extends AbstractList<DashboardData> implements RandomAccess {
+
+        @Override
+        public DashboardData get(int index) {
+            return HistoryBuffer.this.get(index);
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+    }
+}
@@ -0,0 +1,225 @@
+package dashboard;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.FloatBuffer;
+import java.nio.IntBuffer;
+import java.nio.LongBuffer;
+
+/**
+ * Struct-of-arrays storage of the history, one primitive column per measured quantity. The boolean quantities
+ * are stored as bitsets, addressed by their 64 bit words. The storage is either on the heap or off-heap.
+ */
+abstract class HistoryColumns {
+
+    static final int HEADLIGHTS = 0;
+    static final int LOW_OIL_LEVEL = 1;
+    static final int ENGINE_STARTED = 2;
+    static final int FLAGS = 3;
+
+    final int length;
+    final int flagWords;
+
+    private HistoryColumns(int length) {
+        this.length = length;
+        flagWords = (length + Long.SIZE - 1) / Long.SIZE;
+    }
+
+    static HistoryColumns allocate(int length, boolean offHeap) {
+        return offHeap ? new OffHeap(length) : new OnHeap(length);
+    }
+
+    abstract int speed(int index);
+
+    abstract void speed(int index, int speed);
+
+    abstract int rpm(int index);
+
+    abstract void rpm(int index, int rpm);
+
+    abstract float acceleration(int index);
+
+    abstract void acceleration(int index, float acceleration);
+
+    abstract byte gear(int index);
+
+    abstract void gear(int index, byte gear);
+
+    abstract long flagWord(int flag, int word);
+
+    abstract void flagWord(int flag, int word, long bits);
+
+    final boolean flag(int flag, int index) {
+        return (flagWord(flag, index >>> 6) & (1L << index)) != 0;
+    }
+
+    final void flag(int flag, int index, boolean value) {
+        int word = index >>> 6;
+        long bits = flagWord(flag, word);
+        flagWord(flag, word, value ? bits | (1L << index) : bits & ~(1L << index));
+    }
+
+    /**
+     * Counts the set flags in the given range of physical indexes.
+     */
+    final int countFlags(int flag, int from, int to) {
+        if (from >= to) {
+            return 0;
+        }
+        int firstWord = from >>> 6;
+        int lastWord = (to - 1) >>> 6;
+        long firstMask = -1L << from;
+        long lastMask = -1L >>> -to;
+        if (firstWord == lastWord) {
+            return Long.bitCount(flagWord(flag, firstWord) & firstMask & lastMask);
+        }
+        int count = Long.bitCount(flagWord(flag, firstWord) & firstMask);
+        for (int word = firstWord + 1; word < lastWord; word++) {
+            count += Long.bitCount(flagWord(flag, word));
+        }
+        return count + Long.bitCount(flagWord(flag, lastWord) & lastMask);
+    }
+
+    private static final class OnHeap extends HistoryColumns {
+
+        private final int[] speeds;
+        private final int[] rpms;
+        private final float[] accelerations;
+        private final byte[] gears;
+        private final long[][] flags;
+
+        OnHeap(int length) {
+            super(length);
+            speeds = new int[length];
+            rpms = new int[length];
+            accelerations = new float[length];
+            gears = new byte[length];
+            flags = new long[FLAGS][flagWords];
+        }
+
+        @Override
+        int speed(int index) {
+            return speeds[index];
+        }
+
+        @Override
+        void speed(int index, int speed) {
+            speeds[index] = speed;
+        }
+
+        @Override
+        int rpm(int index) {
+            return rpms[index];
+        }
+
+        @Override
+        void rpm(int index, int rpm) {
+            rpms[index] = rpm;
+        }
+
+        @Override
+        float acceleration(int index) {
+            return accelerations[index];
+        }
+
+        @Override
+        void acceleration(int index, float acceleration) {
+            accelerations[index] = acceleration;
+        }
+
+        @Override
+        byte gear(int index) {
+            return gears[index];
+        }
+
+        @Override
+        void gear(int index, byte gear) {
+            gears[index] = gear;
+        }
+
+        @Override
+        long flagWord(int flag, int word) {
+            return flags[flag][word];
+        }
+
+        @Override
+        void flagWord(int flag, int word, long bits) {
+            flags[flag][word] = bits;
+        }
+    }
+
+    private static final class OffHeap extends HistoryColumns {
+
+        private final IntBuffer speeds;
+        private final IntBuffer rpms;
+        private final FloatBuffer accelerations;
+        private final ByteBuffer gears;
+        private final LongBuffer flags;
+
+        OffHeap(int length) {
+            super(length);
+            speeds = allocateDirect((long) length * Integer.BYTES).asIntBuffer();
+            rpms = allocateDirect((long) length * Integer.BYTES).asIntBuffer();
+            accelerations = allocateDirect((long) length * Float.BYTES).asFloatBuffer();
+            gears = allocateDirect(length);
+            flags = allocateDirect((long) FLAGS * flagWords * Long.BYTES).asLongBuffer();
+        }
+
+        private static ByteBuffer allocateDirect(long capacity) {
+            if (capacity > Integer.MAX_VALUE) {
+                throw new IllegalArgumentException("The history is too long for off-heap storage.");
+            }
+            return ByteBuffer.allocateDirect((int) capacity).order(ByteOrder.nativeOrder());
+        }
+
+        @Override
+        int speed(int index) {
+            return speeds.get(index);
+        }
+
+        @Override
+        void speed(int index, int speed) {
+            speeds.put(index, speed);
+        }
+
+        @Override
+        int rpm(int index) {
+            return rpms.get(index);
+        }
+
+        @Override
+        void rpm(int index, int rpm) {
+            rpms.put(index, rpm);
+        }
+
+        @Override
+        float acceleration(int index) {
+            return accelerations.get(index);
+        }
+
+        @Override
+        void acceleration(int index, float acceleration) {
+            accelerations.put(index, acceleration);
+        }
+
+        @Override
+        byte gear(int index) {
+            return gears.get(index);
+        }
+
+        @Override
+        void gear(int index, byte gear) {
+            gears.put(index, gear);
+        }
+
+        @Override
+        long flagWord(int flag, int word) {
+            return flags.get(flag * flagWords + word);
+        }
+
+        @Override
+        void flagWord(int flag, int word, long bits) {
+            flags.put(flag * flagWords + word, bits);
+        }
+    }
+}
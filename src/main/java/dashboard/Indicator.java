@@ -0,0 +1,46 @@
+package dashboard;
+
+/**
+ * The indicators of the instrument cluster, each of them showing a single measured quantity. The indicators
+ * to update are passed around as a bitmask, 0 meaning that nothing has changed.
+ */
+public enum Indicator {
+    SPEED,
+    RPM,
+    ACCELERATION,
+    GEAR,
+    HEADLIGHTS,
+    LOW_OIL_LEVEL,
+    ENGINE_STARTED;
+
+    /**
+     * The bitmask of no indicator.
+     */
+    public static final int NONE = 0;
+
+    /**
+     * The bitmask of every indicator.
+     */
+    public static final int ALL = (1 << values().length) - 1;
+
+    private final int mask;
+
+    Indicator() {
+        this.mask = 1 << ordinal();
+    }
+
+    /**
+     * @return the bit representing this indicator in a bitmask of indicators
+     */
+    public int getMask() {
+        return mask;
+    }
+
+    /**
+     * @param indicators a bitmask of indicators
+     * @return whether this indicator is in the bitmask
+     */
+    public boolean isIn(int indicators) {
+        return (indicators & mask) != 0;
+    }
+}
@@ -0,0 +1,18 @@
+package dashboard;
+
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * The actuators and renderers of the instrument cluster updated indicator by indicator, e.g. over a bus where
+ * every indicator is driven by its own message.
+ */
+public interface IndicatorSink {
+
+    /**
+     * Updates the changed indicators, the others keep showing their values.
+     * @param dashboardData the values to show; the instance is only valid during the call
+     * @param changedIndicators the non-empty bitmask of the {@link Indicator indicators} to update
+     */
+    void update(@NotNull DashboardData dashboardData, int changedIndicators);
+
+}
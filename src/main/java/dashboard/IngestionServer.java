@@ -0,0 +1,409 @@
+package dashboard;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.io.IOException;
+import java.net.SocketAddress;
+import java.net.StandardProtocolFamily;
+import java.net.UnixDomainSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Streams frames from socket connections, e.g. of sensor gateways, into displays. The server listens on a TCP or
+ * a Unix domain socket address and serves every connection by its own thread, which feeds the display created for
+ * the connection. The frames are either newline-separated pipe-delimited text or consecutive
+ * {@link BinaryFrameCodec binary frames}, as configured for the server.
+ * <p>
+ * On Java 21 and later the connections are served by virtual threads, so tens of thousands of concurrent
+ * connections take neither a thread pool to tune nor a platform thread each. On earlier versions small-stack
+ * platform threads are used instead, and the default limit of the concurrent connections is lowered accordingly.
+ * <p>
+ * A connection is only read as fast as its display consumes the frames, so a slow display pushes back on the
+ * sender through the flow control of the socket. The number of concurrent connections is limited as well, further
+ * connections wait in the backlog of the socket until an earlier one is closed.
+ */
+public final class IngestionServer implements AutoCloseable {
+
+    /**
+     * The encoding of the frames sent over the connections.
+     */
+    public enum Protocol {
+        /**
+         * Pipe-delimited text frames separated by line feeds, optionally preceded by carriage returns.
+         */
+        TEXT,
+        /**
+         * Consecutive frames in the format of {@link BinaryFrameCodec}.
+         */
+        BINARY
+    }
+
+    /**
+     * The default maximum number of concurrent connections served by virtual threads.
+     */
+    public static final int DEFAULT_MAX_CONNECTIONS = 50_000;
+    /**
+     * The default maximum number of concurrent connections served by platform threads, i.e. before Java 21.
+     */
+    public static final int DEFAULT_MAX_PLATFORM_THREAD_CONNECTIONS = 1024;
+    public static final Duration DEFAULT_DRAIN_TIMEOUT = Duration.ofSeconds(5);
+
+    static final int READ_BUFFER_SIZE = 8192;
+
+    private static final long PLATFORM_THREAD_STACK_SIZE = 256 * 1024;
+
+    private final ServerSocketChannel serverChannel;
+    private final SocketAddress localAddress;
+    private final Protocol protocol;
+    private final Supplier<? extends DataDisplay> displayFactory;
+    private final int maxConnections;
+    private final Semaphore connectionPermits;
+    private final ThreadFactory threadFactory;
+    private final Thread acceptThread;
+    private final Map<SocketChannel, Thread> connections = new ConcurrentHashMap<>();
+    private volatile boolean closed;
+
+    private final LongAdder acceptedConnections = new LongAdder();
+    private final LongAdder acceptedFrames = new LongAdder();
+    private final LongAdder rejectedFrames = new LongAdder();
+    private final LongAdder protocolErrors = new LongAdder();
+
+    /**
+     * Starts a server accepting at most {@value #DEFAULT_MAX_CONNECTIONS} concurrent connections if they are
+     * served by virtual threads, otherwise at most {@value #DEFAULT_MAX_PLATFORM_THREAD_CONNECTIONS}.
+     * @param address the TCP or Unix domain socket address to listen on
+     * @param protocol the encoding of the frames
+     * @param displayFactory creates the display fed by a connection, called once for every connection
+     * @throws IOException if the address cannot be bound
+     */
+    public IngestionServer(@NotNull SocketAddress address,
+                           @NotNull Protocol protocol,
+                           @NotNull Supplier<? extends DataDisplay> displayFactory) throws IOException
+    {
+        this(address, protocol, defaultMaxConnections(), displayFactory);
+    }
+
+    /**
+     * Starts a server.
+     * @param address the TCP or Unix domain socket address to listen on
+     * @param protocol the encoding of the frames
+     * @param maxConnections the maximum number of connections served concurrently
+     * @param displayFactory creates the display fed by a connection, called once for every connection
+     * @throws IOException if the address cannot be bound
+     */
+    public IngestionServer(@NotNull SocketAddress address,
+                           @NotNull Protocol protocol,
+                           int maxConnections,
+                           @NotNull Supplier<? extends DataDisplay> displayFactory) throws IOException
+    {
+        if (maxConnections < 1) {
+            throw new IllegalArgumentException("The maximum number of connections shall be positive.");
+        }
+        this.protocol = protocol;
+        this.displayFactory = displayFactory;
+        this.maxConnections = maxConnections;
+        connectionPermits = new Semaphore(maxConnections);
+        serverChannel = address instanceof UnixDomainSocketAddress ?
+                ServerSocketChannel.open(StandardProtocolFamily.UNIX) :
+                ServerSocketChannel.open();
+        try {
+            serverChannel.bind(address);
+            localAddress = serverChannel.getLocalAddress();
+        } catch (IOException | RuntimeException e) {
+            serverChannel.close();
+            throw e;
+        }
+        threadFactory = newThreadFactory();
+        acceptThread = threadFactory.newThread(this::acceptLoop);
+        acceptThread.start();
+    }
+
+    /**
+     * @return the address the server listens on, e.g. to find out the port chosen by the system
+     */
+    public @NotNull SocketAddress getLocalAddress() {
+        return localAddress;
+    }
+
+    /**
+     * @return whether the connections are served by virtual threads
+     */
+    public boolean isVirtualThreadPerConnection() {
+        return !(threadFactory instanceof PlatformThreadFactory);
+    }
+
+    /**
+     * @return the maximum number of connections served concurrently
+     */
+    public int getMaxConnections() {
+        return maxConnections;
+    }
+
+    /**
+     * @return the number of connections being served
+     */
+    public int getActiveConnectionCount() {
+        return connections.size();
+    }
+
+    /**
+     * @return the number of connections accepted since the start
+     */
+    public long getAcceptedConnectionCount() {
+        return acceptedConnections.sum();
+    }
+
+    /**
+     * @return the number of frames accepted and displayed
+     */
+    public long getAcceptedFrameCount() {
+        return acceptedFrames.sum();
+    }
+
+    /**
+     * @return the number of frames which were malformed or violated a plausibility rule
+     */
+    public long getRejectedFrameCount() {
+        return rejectedFrames.sum();
+    }
+
+    /**
+     * @return the number of connections closed because of a broken stream, e.g. a text line longer than
+     * {@value #READ_BUFFER_SIZE} bytes or a truncated binary frame
+     */
+    public long getProtocolErrorCount() {
+        return protocolErrors.sum();
+    }
+
+    /**
+     * Shuts the server down, waiting at most {@link #DEFAULT_DRAIN_TIMEOUT} for the connections to drain.
+     */
+    @Override
+    public void close() {
+        shutdown(DEFAULT_DRAIN_TIMEOUT);
+    }
+
+    /**
+     * Stops accepting connections and waits for the open connections to be closed by their senders, processing
+     * every frame they send until then. The connections still open after the timeout are closed forcibly, the ones
+     * not accepted yet are refused.
+     * @param drainTimeout the maximum time to wait for the connections to drain
+     * @return whether every connection has been drained
+     */
+    public boolean shutdown(@NotNull Duration drainTimeout) {
+        boolean interrupted = false;
+        if (!closed) {
+            closed = true;
+            try {
+                serverChannel.close();
+            } catch (IOException e) {
+                // nothing to do, the server is going away anyway
+            }
+            acceptThread.interrupt();
+            deleteSocketFile();
+        }
+        while (acceptThread.isAlive()) {
+            try {
+                acceptThread.join();
+            } catch (InterruptedException e) {
+                interrupted = true;
+            }
+        }
+
+        long deadline = System.nanoTime() + drainTimeout.toNanos();
+        for (Thread connectionThread : connections.values()) {
+            long remainingMillis = TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime());
+            if (remainingMillis <= 0) {
+                break;
+            }
+            try {
+                connectionThread.join(remainingMillis);
+            } catch (InterruptedException e) {
+                interrupted = true;
+                break;
+            }
+        }
+        boolean drained = connections.isEmpty();
+        for (Map.Entry<SocketChannel, Thread> connection : connections.entrySet()) {
+            closeQuietly(connection.getKey());
+            while (connection.getValue().isAlive()) {
+                try {
+                    connection.getValue().join();
+                } catch (InterruptedException e) {
+                    interrupted = true;
+                }
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+        return drained;
+    }
+
+    private void acceptLoop() {
+        while (!closed) {
+            try {
+                connectionPermits.acquire();
+            } catch (InterruptedException e) {
+                continue;
+            }
+            SocketChannel channel;
+            try {
+                channel = serverChannel.accept();
+            } catch (ClosedChannelException e) {
+                connectionPermits.release();
+                return;
+            } catch (IOException e) {
+                // e.g. too many open files, the server keeps accepting the next connections
+                connectionPermits.release();
+                continue;
+            }
+            acceptedConnections.increment();
+            Thread connectionThread = threadFactory.newThread(() -> serve(channel));
+            connections.put(channel, connectionThread);
+            connectionThread.start();
+        }
+    }
+
+    private void serve(SocketChannel channel) {
+        try (channel) {
+            DataDisplay display = displayFactory.get();
+            if (protocol == Protocol.TEXT) {
+                serveText(channel, display);
+            } else {
+                serveBinary(channel, display);
+            }
+        } catch (IOException | RuntimeException e) {
+            // the connection is broken or has been closed forcibly, the sender shall reconnect
+        } finally {
+            connections.remove(channel);
+            connectionPermits.release();
+        }
+    }
+
+    private void serveText(SocketChannel channel, DataDisplay display) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(READ_BUFFER_SIZE);
+        while (channel.read(buffer) >= 0) {
+            int end = lastLineEnd(buffer);
+            if (end < 0) {
+                if (!buffer.hasRemaining()) {
+                    protocolErrors.increment();
+                    return;
+                }
+                continue;
+            }
+            buffer.flip();
+            record(display.carDashboardLines(decode(buffer, end)));
+            buffer.position(end + 1);
+            buffer.compact();
+        }
+        // the last line need not be terminated
+        if (buffer.position() > 0) {
+            record(display.carDashboardLines(decode(buffer, buffer.position())));
+        }
+    }
+
+    private void serveBinary(SocketChannel channel, DataDisplay display) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(READ_BUFFER_SIZE - READ_BUFFER_SIZE % BinaryFrameCodec.FRAME_LENGTH);
+        while (channel.read(buffer) >= 0) {
+            int length = buffer.position() - buffer.position() % BinaryFrameCodec.FRAME_LENGTH;
+            if (length == 0) {
+                continue;
+            }
+            buffer.flip();
+            ByteBuffer frames = buffer.duplicate().limit(length);
+            record(display.carDashboardBinaryBatch(frames));
+            buffer.position(length);
+            buffer.compact();
+        }
+        if (buffer.position() > 0) {
+            protocolErrors.increment();
+        }
+    }
+
+    /**
+     * @return the index of the last line feed among the read bytes, or -1 if there is none
+     */
+    private static int lastLineEnd(ByteBuffer buffer) {
+        byte[] bytes = buffer.array();
+        for (int i = buffer.position() - 1; i >= 0; i--) {
+            if (bytes[i] == '\n') {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static String decode(ByteBuffer buffer, int length) {
+        return new String(buffer.array(), 0, length, StandardCharsets.ISO_8859_1);
+    }
+
+    private void record(BatchResult result) {
+        acceptedFrames.add(result.getAcceptedCount());
+        rejectedFrames.add(result.getRejectedCount());
+    }
+
+    private void deleteSocketFile() {
+        if (localAddress instanceof UnixDomainSocketAddress) {
+            try {
+                Files.deleteIfExists(((UnixDomainSocketAddress) localAddress).getPath());
+            } catch (IOException e) {
+                // a stale socket file only prevents binding the same path again
+            }
+        }
+    }
+
+    private static void closeQuietly(SocketChannel channel) {
+        try {
+            channel.close();
+        } catch (IOException e) {
+            // the connection is abandoned anyway
+        }
+    }
+
+    private static int defaultMaxConnections() {
+        return newThreadFactory() instanceof PlatformThreadFactory ?
+                DEFAULT_MAX_PLATFORM_THREAD_CONNECTIONS :
+                DEFAULT_MAX_CONNECTIONS;
+    }
+
+    /**
+     * Creates virtual threads if the runtime supports them, i.e. on Java 21 and later.
+     */
+    private static ThreadFactory newThreadFactory() {
+        try {
+            Class<?> builderClass = Class.forName("java.lang.Thread$Builder");
+            Object builder = Thread.class.getMethod("ofVirtual").invoke(null);
+            builder = builderClass.getMethod("name", String.class, long.class).invoke(builder, "ingestion-", 0L);
+            return (ThreadFactory) builderClass.getMethod("factory").invoke(builder);
+        } catch (ReflectiveOperationException e) {
+            return new PlatformThreadFactory();
+        }
+    }
+
+    private static final class PlatformThreadFactory implements ThreadFactory {
+
+        private final AtomicLong count = new AtomicLong();
+
+        @Override
+        public Thread newThread(@NotNull Runnable task) {
+            Thread thread = new Thread(null, task, "ingestion-" + count.getAndIncrement(), PLATFORM_THREAD_STACK_SIZE);
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+}
@@ -0,0 +1,124 @@
+package dashboard;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Histogram of latencies in nanoseconds with log-linear buckets in the manner of HdrHistogram: every power of two
+ * is divided into {@value #SUB_BUCKET_COUNT} linear sub-buckets, so the recorded values are kept with a relative
+ * error below 3.2% over the whole range of long, in a fixed amount of memory. Recording is thread-safe.
+ */
+public final class LatencyHistogram {
+
+    private static final int SUB_BUCKET_BITS = 5;
+    private static final int SUB_BUCKET_COUNT = 1 << SUB_BUCKET_BITS;
+    private static final int BUCKET_COUNT = (Long.SIZE - SUB_BUCKET_BITS) * SUB_BUCKET_COUNT;
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKET_COUNT);
+    private final LongAdder totalNanos = new LongAdder();
+
+    /**
+     * Records a latency.
+     * @param nanos the latency in nanoseconds, negative values are recorded as 0
+     */
+    public void record(long nanos) {
+        long value = Math.max(nanos, 0);
+        counts.incrementAndGet(bucketOf(value));
+        totalNanos.add(value);
+    }
+
+    /**
+     * @return a copy of the recorded latencies
+     */
+    public @NotNull Snapshot snapshot() {
+        long[] copy = new long[BUCKET_COUNT];
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            copy[i] = counts.get(i);
+        }
+        return new Snapshot(copy, totalNanos.sum());
+    }
+
+    static int bucketOf(long value) {
+        if (value < SUB_BUCKET_COUNT) {
+            return (int) value;
+        }
+        int exponent = Long.SIZE - 1 - Long.numberOfLeadingZeros(value);
+        int shift = exponent - SUB_BUCKET_BITS;
+        return (shift + 1) * SUB_BUCKET_COUNT + (int) (value >>> shift) - SUB_BUCKET_COUNT;
+    }
+
+    /**
+     * @return the highest value falling into the bucket
+     */
+    static long highestValueOf(int bucket) {
+        if (bucket < SUB_BUCKET_COUNT) {
+            return bucket;
+        }
+        int shift = bucket / SUB_BUCKET_COUNT - 1;
+        long lowest = (long) (SUB_BUCKET_COUNT + bucket % SUB_BUCKET_COUNT) << shift;
+        return lowest + (1L << shift) - 1;
+    }
+
+    /**
+     * Immutable copy of the recorded latencies.
+     */
+    public static final class Snapshot {
+
+        private final long[] counts;
+        private final long count;
+        private final long totalNanos;
+
+        private Snapshot(long[] counts, long totalNanos) {
+            this.counts = counts;
+            long count = 0;
+            for (long bucketCount : counts) {
+                count += bucketCount;
+            }
+            this.count = count;
+            this.totalNanos = totalNanos;
+        }
+
+        /**
+         * @return the number of recorded latencies
+         */
+        public long getCount() {
+            return count;
+        }
+
+        /**
+         * @return the average latency in nanoseconds, 0 if nothing has been recorded
+         */
+        public double getMean() {
+            return count == 0 ? 0 : (double) totalNanos / count;
+        }
+
+        /**
+         * @param percentile the percentile between 0 and 100
+         * @return the latency in nanoseconds which the given percentage of the recorded latencies does not
+         * exceed, within the precision of the buckets, 0 if nothing has been recorded
+         */
+        public long getValueAtPercentile(double percentile) {
+            if (!(percentile >= 0 && percentile <= 100)) {
+                throw new IllegalArgumentException("The percentile shall be between 0 and 100.");
+            }
+            long rank = Math.max(1, (long) Math.ceil(percentile / 100 * count));
+            long seen = 0;
+            for (int i = 0; i < counts.length; i++) {
+                seen += counts[i];
+                if (seen >= rank) {
+                    return highestValueOf(i);
+                }
+            }
+            return 0;
+        }
+
+        /**
+         * @return the highest recorded latency in nanoseconds, within the precision of the buckets
+         */
+        public long getMax() {
+            return getValueAtPercentile(100);
+        }
+    }
+}
@@ -0,0 +1,247 @@
+package dashboard;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * View of a pipe-delimited frame decoding every field only when its getter is first called, for consumers
+ * inspecting only a few fields, e.g. a speed logger or the low oil level warning light. Wrapping a frame scans
+ * it once to find the fields, so frames with an unexpected number of fields are rejected right away, but
+ * a malformed value throws the exception of {@link DashboardData#fromString(String)} only from its getter.
+ * <p>
+ * The view is backed by the frame, which shall not be modified until another frame is wrapped. A single
+ * instance can wrap any number of frames one after the other without allocating anything, and it can be
+ * passed wherever {@link DashboardData} is expected. Setting a field overrides the value of the frame.
+ */
+public final class LazyDashboardData extends DashboardData {
+
+    private static final int SPEED = 1;
+    private static final int RPM = 1 << 1;
+    private static final int ACCELERATION = 1 << 2;
+    private static final int GEAR = 1 << 3;
+    private static final int HEADLIGHTS = 1 << 4;
+    private static final int LOW_OIL_LEVEL = 1 << 5;
+    private static final int ENGINE_STARTED = 1 << 6;
+    private static final int ALL_FIELDS = (1 << FrameParser.NUMBER_OF_PARAMETERS) - 1;
+
+    private static final char DELIMITER = '|';
+
+    private final FrameParser.ByteFrame byteFrame = new FrameParser.ByteFrame();
+    private CharSequence frame;
+
+    /**
+     * The index of the first character of every field, followed by the end of the last field.
+     */
+    private final int[] fieldStarts = new int[FrameParser.NUMBER_OF_PARAMETERS + 1];
+
+    /**
+     * The bitmask of the fields which have already been decoded or set.
+     */
+    private int decodedFields = ALL_FIELDS;
+
+    /**
+     * Creates a view of no frame, holding the default values until a frame is wrapped.
+     */
+    public LazyDashboardData() {
+    }
+
+    /**
+     * @param frame the measured physical values delimited by pipe, i.e. '|' characters
+     * @return a new view of the frame
+     */
+    public static @NotNull LazyDashboardData of(@Nullable CharSequence frame) {
+        LazyDashboardData dashboardData = new LazyDashboardData();
+        dashboardData.wrap(frame);
+        return dashboardData;
+    }
+
+    /**
+     * Makes this instance a view of a whole frame.
+     * @param frame the measured physical values delimited by pipe, i.e. '|' characters
+     * @throws IllegalArgumentException if the frame is null or has an unexpected number of fields
+     */
+    public void wrap(@Nullable CharSequence frame) {
+        if (frame == null) {
+            throw new IllegalArgumentException("The input shall not be null.");
+        }
+        wrap(frame, 0, frame.length());
+    }
+
+    /**
+     * Makes this instance a view of a frame stored as a region of a character sequence.
+     * @param frame the sequence holding the frame
+     * @param start the index of the first character of the frame
+     * @param end the index after the last character of the frame
+     * @throws IllegalArgumentException if the frame has an unexpected number of fields
+     */
+    public void wrap(@NotNull CharSequence frame, int start, int end) {
+        byteFrame.clear();
+        index(frame, start, end);
+    }
+
+    /**
+     * Makes this instance a view of a frame stored as ASCII bytes in an array.
+     * @param frame the array holding the frame
+     * @param offset the index of the first byte of the frame
+     * @param length the number of bytes of the frame
+     * @throws IllegalArgumentException if the frame has an unexpected number of fields
+     */
+    public void wrap(byte @NotNull [] frame, int offset, int length) {
+        byteFrame.wrap(frame, offset, length);
+        index(byteFrame, 0, length);
+    }
+
+    /**
+     * Finds the fields in a single scan, counting them the same way as {@link FrameParser} does, i.e. trailing
+     * empty fields are not counted, unless the frame is empty.
+     */
+    private void index(@NotNull CharSequence frame, int start, int end) {
+        int delimiters = 0;
+        int delimitersBeforeContent = 0;
+        boolean content = false;
+        fieldStarts[0] = start;
+        for (int i = start; i < end; i++) {
+            if (frame.charAt(i) == DELIMITER) {
+                delimiters++;
+                if (delimiters < FrameParser.NUMBER_OF_PARAMETERS) {
+                    fieldStarts[delimiters] = i + 1;
+                } else if (delimiters == FrameParser.NUMBER_OF_PARAMETERS) {
+                    // the end of the last field, as if another field started after the delimiter
+                    fieldStarts[delimiters] = i + 1;
+                }
+            } else {
+                content = true;
+                delimitersBeforeContent = delimiters;
+            }
+        }
+        int fields = content ? delimitersBeforeContent + 1 : start == end ? 1 : 0;
+        if (fields != FrameParser.NUMBER_OF_PARAMETERS) {
+            this.frame = null;
+            decodedFields = ALL_FIELDS;
+            throw new IllegalArgumentException("Unexpected number of parameters in the input.");
+        }
+        if (delimiters < FrameParser.NUMBER_OF_PARAMETERS) {
+            fieldStarts[FrameParser.NUMBER_OF_PARAMETERS] = end + 1;
+        }
+        this.frame = frame;
+        decodedFields = 0;
+    }
+
+    private int fieldStart(int field) {
+        return fieldStarts[field];
+    }
+
+    private int fieldEnd(int field) {
+        // the next field starts after the delimiter
+        return fieldStarts[field + 1] - 1;
+    }
+
+    private boolean isDecoded(int field) {
+        return (decodedFields & field) != 0;
+    }
+
+    @Override
+    public int getSpeed() {
+        if (!isDecoded(SPEED)) {
+            super.setSpeed(FrameParser.parseInt(frame, fieldStart(0), fieldEnd(0)));
+            decodedFields |= SPEED;
+        }
+        return super.getSpeed();
+    }
+
+    @Override
+    public void setSpeed(int speed) {
+        super.setSpeed(speed);
+        decodedFields |= SPEED;
+    }
+
+    @Override
+    public int getRpm() {
+        if (!isDecoded(RPM)) {
+            super.setRpm(FrameParser.parseInt(frame, fieldStart(1), fieldEnd(1)));
+            decodedFields |= RPM;
+        }
+        return super.getRpm();
+    }
+
+    @Override
+    public void setRpm(int rpm) {
+        super.setRpm(rpm);
+        decodedFields |= RPM;
+    }
+
+    @Override
+    public float getAcceleration() {
+        if (!isDecoded(ACCELERATION)) {
+            super.setAcceleration(FrameParser.parseFloat(frame, fieldStart(2), fieldEnd(2)));
+            decodedFields |= ACCELERATION;
+        }
+        return super.getAcceleration();
+    }
+
+    @Override
+    public void setAcceleration(float acceleration) {
+        super.setAcceleration(acceleration);
+        decodedFields |= ACCELERATION;
+    }
+
+    @Override
+    public Gear getGear() {
+        if (!isDecoded(GEAR)) {
+            super.setGear(FrameParser.parseGear(frame, fieldStart(3), fieldEnd(3)));
+            decodedFields |= GEAR;
+        }
+        return super.getGear();
+    }
+
+    @Override
+    public void setGear(Gear gear) {
+        super.setGear(gear);
+        decodedFields |= GEAR;
+    }
+
+    @Override
+    public boolean isHeadlights() {
+        if (!isDecoded(HEADLIGHTS)) {
+            super.setHeadlights(FrameParser.parseBoolean(frame, fieldStart(4), fieldEnd(4)));
+            decodedFields |= HEADLIGHTS;
+        }
+        return super.isHeadlights();
+    }
+
+    @Override
+    public void setHeadlights(boolean headlights) {
+        super.setHeadlights(headlights);
+        decodedFields |= HEADLIGHTS;
+    }
+
+    @Override
+    public boolean isLowOilLevel() {
+        if (!isDecoded(LOW_OIL_LEVEL)) {
+            super.setLowOilLevel(FrameParser.parseBoolean(frame, fieldStart(5), fieldEnd(5)));
+            decodedFields |= LOW_OIL_LEVEL;
+        }
+        return super.isLowOilLevel();
+    }
+
+    @Override
+    public void setLowOilLevel(boolean lowOilLevel) {
+        super.setLowOilLevel(lowOilLevel);
+        decodedFields |= LOW_OIL_LEVEL;
+    }
+
+    @Override
+    public boolean isEngineStarted() {
+        if (!isDecoded(ENGINE_STARTED)) {
+            super.setEngineStarted(FrameParser.parseBoolean(frame, fieldStart(6), fieldEnd(6)));
+            decodedFields |= ENGINE_STARTED;
+        }
+        return super.isEngineStarted();
+    }
+
+    @Override
+    public void setEngineStarted(boolean engineStarted) {
+        super.setEngineStarted(engineStarted);
+        decodedFields |= ENGINE_STARTED;
+    }
+}
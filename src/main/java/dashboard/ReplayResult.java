@@ -0,0 +1,43 @@
+package dashboard;
+
+/**
+ * Summary of replaying a telemetry log.
+ */
+public final class ReplayResult {
+
+    private long frameCount;
+    private long acceptedCount;
+    private long differingCount;
+
+    void add(int recordedViolations, int replayedViolations) {
+        frameCount++;
+        if (replayedViolations == ValidationRule.NONE) {
+            acceptedCount++;
+        }
+        if (recordedViolations != replayedViolations) {
+            differingCount++;
+        }
+    }
+
+    /**
+     * @return the number of replayed frames
+     */
+    public long getFrameCount() {
+        return frameCount;
+    }
+
+    public long getAcceptedCount() {
+        return acceptedCount;
+    }
+
+    public long getRejectedCount() {
+        return frameCount - acceptedCount;
+    }
+
+    /**
+     * @return the number of frames whose outcome differs from the recorded one, e.g. because the rules changed
+     */
+    public long getDifferingCount() {
+        return differingCount;
+    }
+}
@@ -0,0 +1,73 @@
+package dashboard;
+
+/**
+ * Statistics of a quantity over a moving window, updated incrementally in constant amortized time per value, so
+ * the length of the window does not matter. The mean and the variance are maintained with Welford's algorithm
+ * extended by the removal of the evicted values.
+ * <p>
+ * The statistics are updated by the writer thread of the owning {@link HistoryBuffer} and shall only be read
+ * by that thread.
+ */
+public final class RollingStatistics {
+
+    private int count;
+    private double mean;
+    private double sumOfSquaredDeviations;
+
+    /**
+     * Adds a value while the window is not full yet.
+     */
+    void add(double value) {
+        count++;
+        double deviation = value - mean;
+        mean += deviation / count;
+        sumOfSquaredDeviations += deviation * (value - mean);
+    }
+
+    /**
+     * Adds a value to the full window, evicting the oldest one.
+     * @param evicted the oldest value of the window
+     * @param value the new value
+     */
+    void replace(double evicted, double value) {
+        double previousMean = mean;
+        mean += (value - evicted) / count;
+        sumOfSquaredDeviations += (value - evicted) * (value - mean + evicted - previousMean);
+        // the removal may cancel out to a tiny negative value
+        if (sumOfSquaredDeviations < 0) {
+            sumOfSquaredDeviations = 0;
+        }
+    }
+
+    /**
+     * @return the number of values in the window
+     */
+    public int getCount() {
+        return count;
+    }
+
+    /**
+     * @return the average of the values in the window, 0 if the window is empty
+     */
+    public double getMean() {
+        return mean;
+    }
+
+    /**
+     * @return the sum of the values in the window
+     */
+    public double getSum() {
+        return mean * count;
+    }
+
+    /**
+     * @return the population variance of the values in the window, 0 if the window is empty
+     */
+    public double getVariance() {
+        return count == 0 ? 0 : sumOfSquaredDeviations / count;
+    }
+
+    public double getStandardDeviation() {
+        return Math.sqrt(getVariance());
+    }
+}
@@ -0,0 +1,266 @@
+package dashboard;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Objects;
+
+/**
+ * Evaluates the plausibility rules of a {@link VehicleProfile} for a given transmission type. The limits of the
+ * profile are compiled into flat lookup tables indexed by the ordinal of the gear at construction, including the
+ * thresholds derived from them, so the evaluation neither allocates nor recomputes anything.
+ */
+public final class RuleEngine {
+
+    /**
+     * Number of frames validated check by check by the columnar evaluation, small enough to keep the columns
+     * of a block in the L1 cache between the checks.
+     */
+    private static final int BLOCK_LENGTH = 1024;
+
+    private final VehicleProfile profile;
+    private final boolean automaticTransmission;
+
+    private final int lowestSpeed;
+    private final int highestSpeed;
+    private final int maxAllowedDeltaSpeed;
+    private final float notableAcceleration;
+    private final double maxDrift;
+    private final double speedPerAcceleration;
+    private final double deviationFactor;
+
+    private final boolean[] gearApplicable;
+    private final int[] lowestGearSpeed;
+    private final int[] highestGearSpeed;
+    private final int[] lowestGearRpm;
+    private final int[] highestGearRpm;
+    private final int[] middleGearSpeed;
+    private final int[] middleGearRpm;
+    private final boolean[] accelerationChecked;
+
+    /**
+     * Compiles the rules of a profile.
+     * @param profile the limits of the vehicle model
+     * @param automaticTransmission whether the vehicle has automatic transmission
+     */
+    public RuleEngine(@NotNull VehicleProfile profile, boolean automaticTransmission) {
+        this.profile = profile;
+        this.automaticTransmission = automaticTransmission;
+        lowestSpeed = profile.getLowestSpeed();
+        highestSpeed = profile.getHighestSpeed();
+        maxAllowedDeltaSpeed = profile.getMaxAllowedDeltaSpeed();
+        notableAcceleration = profile.getNotableAcceleration();
+        maxDrift = profile.getMaxDrift();
+        speedPerAcceleration = profile.getSpeedPerAcceleration();
+        deviationFactor = profile.getDeviationFactor();
+
+        Gear[] gears = Gear.values();
+        gearApplicable = new boolean[gears.length];
+        lowestGearSpeed = new int[gears.length];
+        highestGearSpeed = new int[gears.length];
+        lowestGearRpm = new int[gears.length];
+        highestGearRpm = new int[gears.length];
+        middleGearSpeed = new int[gears.length];
+        middleGearRpm = new int[gears.length];
+        accelerationChecked = new boolean[gears.length];
+        for (Gear gear : gears) {
+            int index = gear.ordinal();
+            gearApplicable[index] = automaticTransmission ?
+                    profile.isApplicableToAutomatic(gear) :
+                    profile.isApplicableToManual(gear);
+            lowestGearSpeed[index] = profile.getLowestSpeed(gear);
+            highestGearSpeed[index] = profile.getHighestSpeed(gear);
+            lowestGearRpm[index] = profile.getLowestRpm(gear);
+            highestGearRpm[index] = profile.getHighestRpm(gear);
+            middleGearSpeed[index] = (lowestGearSpeed[index] + highestGearSpeed[index]) / 2;
+            middleGearRpm[index] = (lowestGearRpm[index] + highestGearRpm[index]) / 2;
+            // in neutral, the engine speed is independent of the speed of the vehicle
+            accelerationChecked[index] = gear != Gear.N;
+        }
+    }
+
+    /**
+     * Creates the rules of the default profile.
+     * @param automaticTransmission whether the vehicle has automatic transmission
+     * @return the rules of the {@link VehicleProfile#defaultProfile() default profile}
+     */
+    public static @NotNull RuleEngine defaultRules(boolean automaticTransmission) {
+        return new RuleEngine(VehicleProfile.defaultProfile(), automaticTransmission);
+    }
+
+    public @NotNull VehicleProfile getProfile() {
+        return profile;
+    }
+
+    public boolean isAutomaticTransmission() {
+        return automaticTransmission;
+    }
+
+    /**
+     * Evaluates every rule which only depends on the values of the frame itself.
+     * @param dashboardData the parsed input data
+     * @return the bitmask of every violated {@link ValidationRule}
+     */
+    public int evaluate(@NotNull DashboardData dashboardData) {
+        return validateSpeed(dashboardData) | validateCorrelations(dashboardData) |
+                (Float.isFinite(dashboardData.getAcceleration()) ? 0 : ValidationRule.ACCELERATION_NOT_FINITE.getMask());
+    }
+
+    /**
+     * Evaluates the rules of {@link #evaluate(DashboardData)} for a range of frames stored in columns, with exactly
+     * the same outcome for every frame, but neither parsing nor allocating anything. The frames are processed in
+     * blocks, and every check is a branch-free loop over the primitive columns of a block, which the JIT compiler
+     * can unroll and vectorize, while the block stays in the cache for the next check.
+     * @param frames the frames
+     * @param from the index of the first frame to evaluate
+     * @param to the index after the last frame to evaluate
+     * @param violations receives the bitmask of every violated {@link ValidationRule} of each frame at the index
+     *                   of the frame
+     * @return the number of frames violating at least one rule
+     */
+    public int evaluate(@NotNull FrameColumns frames, int from, int to, int @NotNull [] violations) {
+        Objects.checkFromToIndex(from, to, frames.size());
+        Objects.checkFromToIndex(from, to, violations.length);
+        int invalid = 0;
+        for (int blockStart = from; blockStart < to; ) {
+            int blockEnd = blockStart + Math.min(BLOCK_LENGTH, to - blockStart);
+            validateSpeeds(frames, blockStart, blockEnd, violations);
+            validateCorrelations(frames, blockStart, blockEnd, violations);
+            for (int i = blockStart; i < blockEnd; i++) {
+                invalid += violations[i] != ValidationRule.NONE ? 1 : 0;
+            }
+            blockStart = blockEnd;
+        }
+        return invalid;
+    }
+
+    /**
+     * Evaluates the rules comparing the values to the previously accepted ones. The speed is predicted from the
+     * latest accepted speed and the average of the latest and the current acceleration; the allowed deviation from
+     * the prediction widens with the change of the acceleration, as the acceleration between the frames is unknown.
+     * To catch slow drift, the average change of the speed per frame over the whole window which is not explained
+     * by the measured acceleration is limited as well, with a bound widening with the noise of the acceleration in
+     * the window. Only the incrementally maintained statistics and the two ends of the window are read, so the
+     * evaluation takes constant time regardless of the length of the window.
+     * @param dashboardData the parsed input data
+     * @param history the previously accepted values, not empty
+     * @return the bitmask of every violated {@link ValidationRule}
+     */
+    public int evaluateAgainstHistory(@NotNull DashboardData dashboardData, @NotNull HistoryBuffer history) {
+        int count = history.size();
+        int latest = count - 1;
+        int speed = dashboardData.getSpeed();
+        float acceleration = dashboardData.getAcceleration();
+
+        float latestAcceleration = history.getAcceleration(latest);
+        double predictedSpeed = history.getSpeed(latest) +
+                speedPerAcceleration * (latestAcceleration + acceleration) / 2;
+        double tolerance = maxAllowedDeltaSpeed +
+                speedPerAcceleration * Math.abs(acceleration - latestAcceleration) / 2;
+        if (Math.abs(speed - predictedSpeed) > tolerance) {
+            return ValidationRule.OUTLIER_SPEED.getMask();
+        }
+
+        // the trapezoidal integral of the acceleration from the oldest value of the window to the current one
+        double integratedAcceleration = history.getAccelerationStatistics().getSum() +
+                (acceleration - history.getAcceleration(0)) / 2;
+        double drift = (speed - history.getSpeed(0) - speedPerAcceleration * integratedAcceleration) / count;
+        double driftTolerance = maxAllowedDeltaSpeed +
+                deviationFactor * speedPerAcceleration * history.getAccelerationStatistics().getStandardDeviation();
+        // the unknown acceleration between the latest and the current frame allows the same deviation as for the
+        // prediction, spread over the window, so a window of a single value is no stricter than the prediction
+        double accelerationChangeTolerance = (tolerance - maxAllowedDeltaSpeed) / count;
+        // the noise of independent frames averages out, so the allowed drift narrows with the square root
+        return Math.abs(drift) > Math.max(maxDrift, driftTolerance / Math.sqrt(count)) + accelerationChangeTolerance ?
+                ValidationRule.OUTLIER_SPEED.getMask() : ValidationRule.NONE;
+    }
+
+    /**
+     * Validates the speed value against its constraints. This includes range checks and other integrity checks
+     * in correlation of other measured values.
+     */
+    private int validateSpeed(@NotNull DashboardData dashboardData) {
+        int speed = dashboardData.getSpeed();
+        return (speed < lowestSpeed | speed > highestSpeed ? ValidationRule.SPEED_OUT_OF_RANGE.getMask() : 0) |
+                (speed != 0 & !dashboardData.isEngineStarted() ? ValidationRule.ENGINE_NOT_RUNNING.getMask() : 0);
+    }
+
+    /**
+     * Columnar variant of {@link #validateSpeed(DashboardData)} and of the check of the acceleration being finite,
+     * overwriting the violations of the frames.
+     */
+    private void validateSpeeds(@NotNull FrameColumns frames, int from, int to, int @NotNull [] violations) {
+        int[] speeds = frames.speeds;
+        float[] accelerations = frames.accelerations;
+        boolean[] engineStarted = frames.engineStarted;
+        int speedOutOfRange = ValidationRule.SPEED_OUT_OF_RANGE.getMask();
+        int engineNotRunning = ValidationRule.ENGINE_NOT_RUNNING.getMask();
+        int accelerationNotFinite = ValidationRule.ACCELERATION_NOT_FINITE.getMask();
+        for (int i = from; i < to; i++) {
+            int speed = speeds[i];
+            violations[i] = (speed < lowestSpeed | speed > highestSpeed ? speedOutOfRange : 0) |
+                    (speed != 0 & !engineStarted[i] ? engineNotRunning : 0) |
+                    (Float.isFinite(accelerations[i]) ? 0 : accelerationNotFinite);
+        }
+    }
+
+    /**
+     * Columnar variant of {@link #validateCorrelations(DashboardData)}, adding to the violations of the frames.
+     */
+    private void validateCorrelations(@NotNull FrameColumns frames, int from, int to, int @NotNull [] violations) {
+        int[] speeds = frames.speeds;
+        int[] rpms = frames.rpms;
+        float[] accelerations = frames.accelerations;
+        byte[] gears = frames.gears;
+        int gearNotApplicableMask = ValidationRule.GEAR_NOT_APPLICABLE_TO_TRANSMISSION.getMask();
+        int speedOutOfGearRangeMask = ValidationRule.SPEED_OUT_OF_GEAR_RANGE.getMask();
+        int rpmOutOfGearRangeMask = ValidationRule.RPM_OUT_OF_GEAR_RANGE.getMask();
+        int highRpmWithoutAccelerationMask = ValidationRule.HIGH_RPM_WITHOUT_ACCELERATION.getMask();
+        int lowRpmWithAccelerationMask = ValidationRule.LOW_RPM_WITH_ACCELERATION.getMask();
+        for (int i = from; i < to; i++) {
+            int gear = gears[i];
+            int speed = speeds[i];
+            int rpm = rpms[i];
+            float acceleration = Math.abs(accelerations[i]);
+            boolean accelerationChecked = this.accelerationChecked[gear];
+
+            boolean gearNotApplicable = !gearApplicable[gear];
+            boolean speedOutOfGearRange = speed < lowestGearSpeed[gear] | speed > highestGearSpeed[gear];
+            boolean rpmOutOfGearRange = rpm < lowestGearRpm[gear] | rpm > highestGearRpm[gear];
+            boolean highRpmWithoutAcceleration = accelerationChecked & acceleration < notableAcceleration &
+                    rpm > middleGearRpm[gear] & speed < middleGearSpeed[gear];
+            boolean lowRpmWithAcceleration = accelerationChecked & acceleration > notableAcceleration &
+                    rpm < middleGearRpm[gear] & speed > middleGearSpeed[gear];
+
+            violations[i] |= (gearNotApplicable ? gearNotApplicableMask : 0) |
+                    (speedOutOfGearRange ? speedOutOfGearRangeMask : 0) |
+                    (rpmOutOfGearRange ? rpmOutOfGearRangeMask : 0) |
+                    (highRpmWithoutAcceleration ? highRpmWithoutAccelerationMask : 0) |
+                    (lowRpmWithAcceleration ? lowRpmWithAccelerationMask : 0);
+        }
+    }
+
+    /**
+     * Checks how the actual parameter values correlate to each other, i.e. a kind of sanity check.
+     */
+    private int validateCorrelations(@NotNull DashboardData dashboardData) {
+        int gear = dashboardData.getGear().ordinal();
+        int speed = dashboardData.getSpeed();
+        int rpm = dashboardData.getRpm();
+        float acceleration = Math.abs(dashboardData.getAcceleration());
+        boolean accelerationChecked = this.accelerationChecked[gear];
+
+        boolean gearNotApplicable = !gearApplicable[gear];
+        boolean speedOutOfGearRange = speed < lowestGearSpeed[gear] | speed > highestGearSpeed[gear];
+        boolean rpmOutOfGearRange = rpm < lowestGearRpm[gear] | rpm > highestGearRpm[gear];
+        boolean highRpmWithoutAcceleration = accelerationChecked & acceleration < notableAcceleration &
+                rpm > middleGearRpm[gear] & speed < middleGearSpeed[gear];
+        boolean lowRpmWithAcceleration = accelerationChecked & acceleration > notableAcceleration &
+                rpm < middleGearRpm[gear] & speed > middleGearSpeed[gear];
+
+        return (gearNotApplicable ? ValidationRule.GEAR_NOT_APPLICABLE_TO_TRANSMISSION.getMask() : 0) |
+                (speedOutOfGearRange ? ValidationRule.SPEED_OUT_OF_GEAR_RANGE.getMask() : 0) |
+                (rpmOutOfGearRange ? ValidationRule.RPM_OUT_OF_GEAR_RANGE.getMask() : 0) |
+                (highRpmWithoutAcceleration ? ValidationRule.HIGH_RPM_WITHOUT_ACCELERATION.getMask() : 0) |
+                (lowRpmWithAcceleration ? ValidationRule.LOW_RPM_WITH_ACCELERATION.getMask() : 0);
+    }
+}
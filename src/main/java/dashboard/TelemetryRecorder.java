@@ -0,0 +1,282 @@
+package dashboard;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Append-only log of the parsed frames and their outcome, written into memory-mapped segment files. Appending a
+ * record is a handful of memory stores, so the recorder can be always on. When a segment is full, the recorder
+ * rolls over to the next one, which a background thread has already created and mapped ahead of time. The same
+ * thread flushes the full segment to the storage device, so a rollover does not stall the thread feeding the
+ * display either.
+ * <p>
+ * Every segment starts with a {@value #HEADER_LENGTH} byte header (magic number, format version, record length)
+ * followed by records of {@value #RECORD_LENGTH} bytes: the values as a {@link BinaryFrameCodec} frame, the
+ * bitmask of violated rules as int and the epoch timestamp in nanoseconds as long. The unused tail of a segment
+ * is zero filled, which marks the end of the records.
+ * <p>
+ * Frames whose values do not fit into a binary frame, e.g. wildly out of range rejected ones, are not recorded,
+ * only counted. The recorder shall be used by the thread feeding the display.
+ */
+public final class TelemetryRecorder implements FrameListener, AutoCloseable {
+
+    public static final int DEFAULT_SEGMENT_SIZE = 64 << 20;
+
+    static final int MAGIC = 0x43444C47;
+    static final int FORMAT_VERSION = 1;
+    static final int HEADER_LENGTH = 16;
+    static final int RECORD_LENGTH = 24;
+    static final int VIOLATIONS_OFFSET = BinaryFrameCodec.FRAME_LENGTH;
+    static final int TIMESTAMP_OFFSET = VIOLATIONS_OFFSET + 4;
+
+    private static final String SEGMENT_PREFIX = "telemetry-";
+    private static final String SEGMENT_SUFFIX = ".log";
+
+    private final Path directory;
+    private final int segmentSize;
+    private final long epochNanosAtStart;
+    private final long nanoTimeAtStart;
+
+    /**
+     * Flushes the full segments and maps the next ones in the order of the rollovers.
+     */
+    private final ExecutorService segmentWorker;
+
+    private MappedByteBuffer segment;
+    private Future<MappedByteBuffer> nextSegment;
+    private Path nextSegmentPath;
+    private int nextSegmentIndex;
+    private volatile RuntimeException flushFailure;
+    private boolean closed;
+    private long recordedCount;
+    private long skippedCount;
+
+    /**
+     * Opens a recorder with segments of {@value #DEFAULT_SEGMENT_SIZE} bytes.
+     * @param directory the directory of the segments; existing segments are kept, recording continues after them
+     * @throws IOException if the first segment cannot be created
+     */
+    public TelemetryRecorder(@NotNull Path directory) throws IOException {
+        this(directory, DEFAULT_SEGMENT_SIZE);
+    }
+
+    /**
+     * Opens a recorder.
+     * @param directory the directory of the segments; existing segments are kept, recording continues after them
+     * @param segmentSize the size of a segment file in bytes
+     * @throws IOException if the first segment cannot be created
+     */
+    public TelemetryRecorder(@NotNull Path directory, int segmentSize) throws IOException {
+        if (segmentSize < HEADER_LENGTH + RECORD_LENGTH) {
+            throw new IllegalArgumentException("The segment size is too small to hold a record.");
+        }
+        this.directory = directory;
+        this.segmentSize = segmentSize;
+        Instant now = Instant.now();
+        nanoTimeAtStart = System.nanoTime();
+        epochNanosAtStart = now.getEpochSecond() * 1_000_000_000L + now.getNano();
+
+        Files.createDirectories(directory);
+        List<Path> segments = listSegments(directory);
+        nextSegmentIndex = segments.isEmpty() ? 0 : segmentIndex(segments.get(segments.size() - 1)) + 1;
+        segment = openSegment(nextSegmentPath());
+        segmentWorker = Executors.newSingleThreadExecutor(task -> {
+            Thread thread = new Thread(task, "telemetry-segments");
+            thread.setDaemon(true);
+            return thread;
+        });
+        mapNextSegmentAhead();
+    }
+
+    /**
+     * Appends a record of the frame.
+     */
+    @Override
+    public void onFrame(@NotNull DashboardData dashboardData, int violations) {
+        if (segment == null) {
+            throw new IllegalStateException("The recorder is closed.");
+        }
+        if (!BinaryFrameCodec.isEncodable(dashboardData)) {
+            skippedCount++;
+            return;
+        }
+        if (segment.remaining() < RECORD_LENGTH) {
+            rollOver();
+        }
+
+        int position = segment.position();
+        BinaryFrameCodec.encode(dashboardData, segment);
+        segment.putInt(position + VIOLATIONS_OFFSET, violations);
+        segment.putLong(position + TIMESTAMP_OFFSET, epochNanosAtStart + (System.nanoTime() - nanoTimeAtStart));
+        segment.position(position + RECORD_LENGTH);
+        recordedCount++;
+    }
+
+    /**
+     * Flushes the current segment to the storage device.
+     * @throws java.io.UncheckedIOException if flushing the current or a previously filled segment failed
+     */
+    public void flush() {
+        if (segment != null) {
+            segment.force();
+        }
+        RuntimeException failure = flushFailure;
+        if (failure != null) {
+            throw failure;
+        }
+    }
+
+    /**
+     * Flushes the current segment, waits for the full segments to be flushed and deletes the segment mapped ahead
+     * of time, which has not been used.
+     */
+    @Override
+    public void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        try {
+            flush();
+        } finally {
+            segment = null;
+            if (nextSegment != null) {
+                nextSegment.cancel(false);
+            }
+            segmentWorker.shutdown();
+            awaitSegmentWorker();
+            deleteUnusedSegment();
+        }
+    }
+
+    /**
+     * @return the number of recorded frames
+     */
+    public long getRecordedCount() {
+        return recordedCount;
+    }
+
+    /**
+     * @return the number of frames which could not be recorded because their values do not fit into the record
+     */
+    public long getSkippedCount() {
+        return skippedCount;
+    }
+
+    /**
+     * @param directory the directory of the segments
+     * @return the segment files in recording order
+     * @throws IOException if the directory cannot be listed
+     */
+    static @NotNull List<Path> listSegments(@NotNull Path directory) throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files
+                    .filter(file -> {
+                        String name = file.getFileName().toString();
+                        return name.startsWith(SEGMENT_PREFIX) && name.endsWith(SEGMENT_SUFFIX);
+                    })
+                    .sorted()
+                    .collect(Collectors.toList());
+        }
+    }
+
+    /**
+     * @return the index in the name of a segment file
+     */
+    private static int segmentIndex(@NotNull Path segment) {
+        String name = segment.getFileName().toString();
+        try {
+            return Integer.parseInt(name.substring(SEGMENT_PREFIX.length(), name.length() - SEGMENT_SUFFIX.length()));
+        } catch (NumberFormatException e) {
+            throw new IllegalStateException("Unexpected telemetry segment name: " + name, e);
+        }
+    }
+
+    private void rollOver() {
+        MappedByteBuffer full = segment;
+        try {
+            // only blocks if the previous rollover was so recent that the next segment is still being mapped
+            segment = nextSegment.get();
+        } catch (ExecutionException e) {
+            segment = null;
+            throw new UncheckedIOException("Failed to roll over to a new telemetry segment.",
+                    e.getCause() instanceof IOException ? (IOException) e.getCause() : new IOException(e.getCause()));
+        } catch (InterruptedException e) {
+            segment = null;
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while rolling over to a new telemetry segment.", e);
+        }
+        // the full segment is unmapped once it has been flushed and the reference of the task is dropped
+        segmentWorker.execute(() -> flushInBackground(full));
+        mapNextSegmentAhead();
+    }
+
+    private void mapNextSegmentAhead() {
+        Path path = nextSegmentPath();
+        nextSegmentPath = path;
+        nextSegment = segmentWorker.submit(() -> openSegment(path));
+    }
+
+    private @NotNull Path nextSegmentPath() {
+        return directory.resolve(String.format("%s%08d%s", SEGMENT_PREFIX, nextSegmentIndex++, SEGMENT_SUFFIX));
+    }
+
+    private void flushInBackground(@NotNull MappedByteBuffer full) {
+        try {
+            full.force();
+        } catch (RuntimeException e) {
+            flushFailure = e;
+        }
+    }
+
+    private void awaitSegmentWorker() {
+        boolean interrupted = false;
+        while (!segmentWorker.isTerminated()) {
+            try {
+                segmentWorker.awaitTermination(1, TimeUnit.MINUTES);
+            } catch (InterruptedException e) {
+                interrupted = true;
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void deleteUnusedSegment() {
+        try {
+            Files.deleteIfExists(nextSegmentPath);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to delete the unused telemetry segment.", e);
+        }
+    }
+
+    private @NotNull MappedByteBuffer openSegment(@NotNull Path path) throws IOException {
+        MappedByteBuffer mapped;
+        try (FileChannel channel = FileChannel.open(path,
+                StandardOpenOption.CREATE_NEW, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            mapped = channel.map(FileChannel.MapMode.READ_WRITE, 0, segmentSize);
+        }
+        mapped.putInt(MAGIC);
+        mapped.putInt(FORMAT_VERSION);
+        mapped.putInt(RECORD_LENGTH);
+        mapped.position(HEADER_LENGTH);
+        return mapped;
+    }
+}
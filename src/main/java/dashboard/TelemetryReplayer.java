@@ -0,0 +1,87 @@
+package dashboard;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Streams a log written by {@link TelemetryRecorder} back through a {@link CarDisplay}, either as fast as possible
+ * or at the pace the frames were recorded at. The outcome of every frame is compared to the recorded one, so a
+ * replay doubles as a regression test of the rules.
+ */
+public final class TelemetryReplayer {
+
+    private final Path directory;
+    private final boolean recordedPacing;
+
+    /**
+     * @param directory the directory of the segments
+     * @param recordedPacing whether to keep the time between the frames as recorded, otherwise they are replayed
+     *                       as fast as possible
+     */
+    public TelemetryReplayer(@NotNull Path directory, boolean recordedPacing) {
+        this.directory = directory;
+        this.recordedPacing = recordedPacing;
+    }
+
+    /**
+     * Replays every segment in recording order.
+     * @param carDisplay the display to feed
+     * @return the summary of the replay
+     * @throws IOException if a segment cannot be read
+     */
+    public @NotNull ReplayResult replay(@NotNull CarDisplay carDisplay) throws IOException {
+        ReplayResult result = new ReplayResult();
+        long firstTimestamp = 0;
+        long startNanoTime = 0;
+        for (Path path : TelemetryRecorder.listSegments(directory)) {
+            MappedByteBuffer segment = map(path);
+            for (int position = TelemetryRecorder.HEADER_LENGTH;
+                 segment.limit() - position >= TelemetryRecorder.RECORD_LENGTH && segment.get(position) != 0;
+                 position += TelemetryRecorder.RECORD_LENGTH) {
+                long timestamp = segment.getLong(position + TelemetryRecorder.TIMESTAMP_OFFSET);
+                if (result.getFrameCount() == 0) {
+                    firstTimestamp = timestamp;
+                    startNanoTime = System.nanoTime();
+                } else if (recordedPacing) {
+                    waitUntil(startNanoTime + (timestamp - firstTimestamp));
+                }
+
+                DashboardData dashboardData = new DashboardData();
+                segment.position(position);
+                BinaryFrameCodec.decode(segment, dashboardData);
+                result.add(
+                        segment.getInt(position + TelemetryRecorder.VIOLATIONS_OFFSET),
+                        carDisplay.tryCarDashboard(dashboardData)
+                );
+            }
+        }
+        return result;
+    }
+
+    private static MappedByteBuffer map(Path path) throws IOException {
+        MappedByteBuffer segment;
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            segment = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+        if (segment.limit() < TelemetryRecorder.HEADER_LENGTH ||
+                segment.getInt(0) != TelemetryRecorder.MAGIC ||
+                segment.getInt(4) != TelemetryRecorder.FORMAT_VERSION ||
+                segment.getInt(8) != TelemetryRecorder.RECORD_LENGTH) {
+            throw new IOException("Not a telemetry segment of a supported format: " + path);
+        }
+        return segment;
+    }
+
+    private static void waitUntil(long nanoTime) {
+        long remaining;
+        while ((remaining = nanoTime - System.nanoTime()) > 0) {
+            LockSupport.parkNanos(remaining);
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package dashboard;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.nio.ByteBuffer;
+import java.util.List;
+
+/**
+ * Drives short sessions through every input path of the displays, so that a JVM started with
+ * {@code -XX:ArchiveClassesAtExit} dumps the classes used from the ignition to the first frames into an
+ * application class data sharing archive, see the {@code startup} profile of the build. The console output is
+ * discarded during the run.
+ */
+final class TrainingRun {
+
+    private static final String[] FRAMES = {
+            "0|800|0.0|P|false|false|true",
+            "0|900|0.5|D|true|false|true",
+            "1|1000|0.6|D|true|false|true",
+            "2|1100|0.7|D|true|false|true",
+            "500|1100|0.7|D|true|false|true",
+            "3|1200|0.7|X|true|false|true",
+            "3|1200|0.7",
+            "",
+    };
+
+    private TrainingRun() {
+    }
+
+    public static void main(String[] args) {
+        PrintStream out = System.out;
+        System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+        try {
+            train(new CarDisplay(true));
+            train(new CarDisplay(false));
+            train(new CarDisplay(RuleEngine.defaultRules(true),
+                    new HistoryBuffer(CarDisplay.DEFAULT_HISTORY_MOVING_WINDOW_LENGTH), ConsoleDisplaySink.INSTANCE,
+                    null, new DashboardMetrics(), true));
+        } finally {
+            System.setOut(out);
+        }
+    }
+
+    private static void train(CarDisplay carDisplay) {
+        for (String frame : FRAMES) {
+            try {
+                carDisplay.carDashboard(frame);
+            } catch (RuntimeException e) {
+                // rejected and malformed frames are part of the training
+            }
+        }
+        carDisplay.carDashboardBatch(List.of(FRAMES));
+        carDisplay.carDashboardLines(String.join("\n", FRAMES));
+
+        ByteBuffer frames = ByteBuffer.allocate(2 * BinaryFrameCodec.FRAME_LENGTH);
+        BinaryFrameCodec.encode(DashboardData.fromString(FRAMES[2]), frames);
+        BinaryFrameCodec.encode(DashboardData.fromString(FRAMES[3]), frames);
+        frames.flip();
+        try {
+            carDisplay.carDashboardBinary(frames.duplicate());
+        } catch (RuntimeException e) {
+            // the gears of the frames are not valid for every transmission
+        }
+        carDisplay.carDashboardBinaryBatch(frames);
+        carDisplay.getHistoricalValues();
+    }
+}
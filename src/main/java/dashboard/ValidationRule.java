@@ -0,0 +1,94 @@
+package dashboard;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.EnumSet;
+import java.util.Set;
+
+/**
+ * The plausibility rules applied to the measured values, in the order of their evaluation. The outcome of the
+ * validation is a bitmask of the violated rules, 0 meaning that the values are valid. The bitmask allows reporting
+ * every violated rule without allocating anything.
+ */
+public enum ValidationRule {
+    SPEED_OUT_OF_RANGE(true, "The speed is out of range."),
+    ENGINE_NOT_RUNNING(false, "Engine is not running."),
+    GEAR_NOT_APPLICABLE_TO_TRANSMISSION(false, "Invalid gear for the selected transmission type."),
+    SPEED_OUT_OF_GEAR_RANGE(false, "Speed does not correlate to the current gear."),
+    RPM_OUT_OF_GEAR_RANGE(false, "RPM does not correlate to the current gear."),
+    HIGH_RPM_WITHOUT_ACCELERATION(false,
+            "Measured high RPM, relatively low speed without notable acceleration or deceleration."),
+    LOW_RPM_WITH_ACCELERATION(false,
+            "Measured low RPM, relatively high speed with notable acceleration or deceleration."),
+    OUTLIER_SPEED(false, "Outlier speed value based on history."),
+    ACCELERATION_NOT_FINITE(true, "The acceleration is not a finite number.");
+
+    /**
+     * The bitmask of valid values.
+     */
+    public static final int NONE = 0;
+
+    private static final ValidationRule[] RULES = values();
+
+    private final int mask;
+    private final boolean illegalArgument;
+    private final String message;
+
+    ValidationRule(boolean illegalArgument, String message) {
+        this.mask = 1 << ordinal();
+        this.illegalArgument = illegalArgument;
+        this.message = message;
+    }
+
+    /**
+     * @return the bit representing this rule in a bitmask of violated rules
+     */
+    public int getMask() {
+        return mask;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+
+    /**
+     * @param violations a bitmask of violated rules
+     * @return whether this rule is violated
+     */
+    public boolean isViolated(int violations) {
+        return (violations & mask) != 0;
+    }
+
+    /**
+     * Creates the exception reporting the violation of this rule.
+     * @return an {@link IllegalArgumentException} for range violations, an {@link IllegalStateException} otherwise
+     */
+    public @NotNull RuntimeException toException() {
+        return illegalArgument ? new IllegalArgumentException(message) : new IllegalStateException(message);
+    }
+
+    /**
+     * @param violations a non-empty bitmask of violated rules
+     * @return the violated rule which is evaluated first
+     */
+    public static @NotNull ValidationRule firstViolated(int violations) {
+        if (violations == NONE) {
+            throw new IllegalArgumentException("No rule is violated.");
+        }
+        return RULES[Integer.numberOfTrailingZeros(violations)];
+    }
+
+    /**
+     * @param violations a bitmask of violated rules
+     * @return the violated rules
+     */
+    public static @NotNull Set<ValidationRule> violatedRules(int violations) {
+        Set<ValidationRule> rules = EnumSet.noneOf(ValidationRule.class);
+        for (ValidationRule rule : RULES) {
+            if (rule.isViolated(violations)) {
+                rules.add(rule);
+            }
+        }
+        return rules;
+    }
+}
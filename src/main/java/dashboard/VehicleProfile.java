@@ -0,0 +1,307 @@
+package dashboard;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Properties;
+
+/**
+ * The plausibility limits of a vehicle model. The default profile uses the limits defined by {@link Gear}, other
+ * profiles can be loaded from properties without recompiling, e.g.
+ * <pre>
+ * speed.lowest=-20
+ * speed.highest=350
+ * speed.maxDelta=5
+ * speed.maxDrift=1.0
+ * speed.perAcceleration=1.8
+ * speed.deviationFactor=3.0
+ * acceleration.notable=5.0
+ * gear.D.automatic=true
+ * gear.D.manual=false
+ * gear.D.speed.lowest=0
+ * gear.D.speed.highest=250
+ * gear.D.rpm.lowest=800
+ * gear.D.rpm.highest=6500
+ * </pre>
+ * Every property is optional, missing ones fall back to the default profile.
+ */
+public final class VehicleProfile {
+
+    private static final int DEFAULT_LOWEST_SPEED = -20;
+    private static final int DEFAULT_HIGHEST_SPEED = 350;
+    private static final int DEFAULT_MAX_ALLOWED_DELTA_SPEED = 5;
+    private static final float DEFAULT_NOTABLE_ACCELERATION = 5.0f;
+    private static final float DEFAULT_MAX_DRIFT = 1.0f;
+    // 3.6 km/h per m/s^2 over the 0.5 s between consecutive frames
+    private static final float DEFAULT_SPEED_PER_ACCELERATION = 1.8f;
+    private static final float DEFAULT_DEVIATION_FACTOR = 3.0f;
+
+    private static final int GEAR_COUNT = Gear.values().length;
+
+    private static final VehicleProfile DEFAULT = defaults();
+
+    private final int lowestSpeed;
+    private final int highestSpeed;
+    private final int maxAllowedDeltaSpeed;
+    private final float notableAcceleration;
+    private final float maxDrift;
+    private final float speedPerAcceleration;
+    private final float deviationFactor;
+
+    private final boolean[] applicableToAutomatic;
+    private final boolean[] applicableToManual;
+    private final int[] lowestGearSpeed;
+    private final int[] highestGearSpeed;
+    private final int[] lowestGearRpm;
+    private final int[] highestGearRpm;
+
+    private VehicleProfile(int lowestSpeed,
+                           int highestSpeed,
+                           int maxAllowedDeltaSpeed,
+                           float notableAcceleration,
+                           float maxDrift,
+                           float speedPerAcceleration,
+                           float deviationFactor,
+                           @NotNull GearLimits gearLimits)
+    {
+        this.lowestSpeed = lowestSpeed;
+        this.highestSpeed = highestSpeed;
+        this.maxAllowedDeltaSpeed = maxAllowedDeltaSpeed;
+        this.notableAcceleration = notableAcceleration;
+        this.maxDrift = maxDrift;
+        this.speedPerAcceleration = speedPerAcceleration;
+        this.deviationFactor = deviationFactor;
+        // the limits are complete before they are assigned, so they are published with the final fields
+        applicableToAutomatic = gearLimits.applicableToAutomatic;
+        applicableToManual = gearLimits.applicableToManual;
+        lowestGearSpeed = gearLimits.lowestSpeed;
+        highestGearSpeed = gearLimits.highestSpeed;
+        lowestGearRpm = gearLimits.lowestRpm;
+        highestGearRpm = gearLimits.highestRpm;
+    }
+
+    /**
+     * @return the profile with the limits defined by {@link Gear}
+     */
+    public static @NotNull VehicleProfile defaultProfile() {
+        return DEFAULT;
+    }
+
+    /**
+     * Loads a profile from a properties file.
+     * @param path the properties file in ISO 8859-1 encoding
+     * @return the loaded profile
+     * @throws IOException if the file cannot be read
+     */
+    public static @NotNull VehicleProfile load(@NotNull Path path) throws IOException {
+        try (Reader reader = Files.newBufferedReader(path, StandardCharsets.ISO_8859_1)) {
+            Properties properties = new Properties();
+            properties.load(reader);
+            return fromProperties(properties);
+        }
+    }
+
+    /**
+     * Loads a profile from a properties stream.
+     * @param inputStream the properties in ISO 8859-1 encoding, not closed by this method
+     * @return the loaded profile
+     * @throws IOException if the stream cannot be read
+     */
+    public static @NotNull VehicleProfile load(@NotNull InputStream inputStream) throws IOException {
+        Properties properties = new Properties();
+        properties.load(inputStream);
+        return fromProperties(properties);
+    }
+
+    /**
+     * Builds the default profile directly from the constants, as it is initialized on the startup path of every
+     * display, where building and looking up the keys of the properties would only add work.
+     */
+    private static @NotNull VehicleProfile defaults() {
+        GearLimits gearLimits = new GearLimits();
+        for (Gear gear : Gear.values()) {
+            int index = gear.ordinal();
+            gearLimits.applicableToAutomatic[index] = gear.isApplicableToAutomatic();
+            gearLimits.applicableToManual[index] = gear.isApplicableToManual();
+            gearLimits.lowestSpeed[index] = gear.getLowestSpeed();
+            gearLimits.highestSpeed[index] = gear.getHighestSpeed();
+            gearLimits.lowestRpm[index] = gear.getLowestRpm();
+            gearLimits.highestRpm[index] = gear.getHighestRpm();
+        }
+        return new VehicleProfile(DEFAULT_LOWEST_SPEED, DEFAULT_HIGHEST_SPEED, DEFAULT_MAX_ALLOWED_DELTA_SPEED,
+                DEFAULT_NOTABLE_ACCELERATION, DEFAULT_MAX_DRIFT, DEFAULT_SPEED_PER_ACCELERATION,
+                DEFAULT_DEVIATION_FACTOR, gearLimits);
+    }
+
+    /**
+     * Creates a profile from properties.
+     * @param properties the limits of the profile, missing ones fall back to the default profile
+     * @return the created profile
+     */
+    public static @NotNull VehicleProfile fromProperties(@NotNull Properties properties) {
+        int lowestSpeed = intProperty(properties, "speed.lowest", DEFAULT_LOWEST_SPEED);
+        int highestSpeed = intProperty(properties, "speed.highest", DEFAULT_HIGHEST_SPEED);
+        int maxAllowedDeltaSpeed = intProperty(properties, "speed.maxDelta", DEFAULT_MAX_ALLOWED_DELTA_SPEED);
+        checkRange(lowestSpeed, highestSpeed, "speed");
+        if (maxAllowedDeltaSpeed < 0) {
+            throw new IllegalArgumentException("The maximum delta of the speed shall not be negative.");
+        }
+
+        GearLimits gearLimits = new GearLimits();
+        for (Gear gear : Gear.values()) {
+            String prefix = "gear." + gear.getValue() + ".";
+            int index = gear.ordinal();
+            gearLimits.applicableToAutomatic[index] =
+                    booleanProperty(properties, prefix + "automatic", gear.isApplicableToAutomatic());
+            gearLimits.applicableToManual[index] =
+                    booleanProperty(properties, prefix + "manual", gear.isApplicableToManual());
+            gearLimits.lowestSpeed[index] = intProperty(properties, prefix + "speed.lowest", gear.getLowestSpeed());
+            gearLimits.highestSpeed[index] = intProperty(properties, prefix + "speed.highest", gear.getHighestSpeed());
+            gearLimits.lowestRpm[index] = intProperty(properties, prefix + "rpm.lowest", gear.getLowestRpm());
+            gearLimits.highestRpm[index] = intProperty(properties, prefix + "rpm.highest", gear.getHighestRpm());
+            checkRange(gearLimits.lowestSpeed[index], gearLimits.highestSpeed[index], prefix + "speed");
+            checkRange(gearLimits.lowestRpm[index], gearLimits.highestRpm[index], prefix + "rpm");
+        }
+        return new VehicleProfile(
+                lowestSpeed,
+                highestSpeed,
+                maxAllowedDeltaSpeed,
+                floatProperty(properties, "acceleration.notable", DEFAULT_NOTABLE_ACCELERATION),
+                nonNegativeFloatProperty(properties, "speed.maxDrift", DEFAULT_MAX_DRIFT),
+                nonNegativeFloatProperty(properties, "speed.perAcceleration", DEFAULT_SPEED_PER_ACCELERATION),
+                nonNegativeFloatProperty(properties, "speed.deviationFactor", DEFAULT_DEVIATION_FACTOR),
+                gearLimits
+        );
+    }
+
+    private static void checkRange(int lowest, int highest, String name) {
+        if (lowest > highest) {
+            throw new IllegalArgumentException("The lowest value of '" + name + "' is higher than the highest one.");
+        }
+    }
+
+    private static int intProperty(Properties properties, String key, int defaultValue) {
+        String value = properties.getProperty(key);
+        if (value == null) {
+            return defaultValue;
+        }
+        try {
+            return Integer.parseInt(value.trim());
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid value of the profile property '" + key + "'.", e);
+        }
+    }
+
+    private static float floatProperty(Properties properties, String key, float defaultValue) {
+        String value = properties.getProperty(key);
+        if (value == null) {
+            return defaultValue;
+        }
+        try {
+            return Float.parseFloat(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid value of the profile property '" + key + "'.", e);
+        }
+    }
+
+    private static float nonNegativeFloatProperty(Properties properties, String key, float defaultValue) {
+        float value = floatProperty(properties, key, defaultValue);
+        if (!(value >= 0 && value < Float.POSITIVE_INFINITY)) {
+            throw new IllegalArgumentException("The profile property '" + key + "' shall be a non-negative number.");
+        }
+        return value;
+    }
+
+    private static boolean booleanProperty(Properties properties, String key, boolean defaultValue) {
+        String value = properties.getProperty(key);
+        return value == null ? defaultValue : Boolean.parseBoolean(value.trim());
+    }
+
+    public int getLowestSpeed() {
+        return lowestSpeed;
+    }
+
+    public int getHighestSpeed() {
+        return highestSpeed;
+    }
+
+    /**
+     * @return the maximum allowed difference of the speed compared to the one predicted from the latest accepted
+     * speed and the acceleration
+     */
+    public int getMaxAllowedDeltaSpeed() {
+        return maxAllowedDeltaSpeed;
+    }
+
+    /**
+     * @return the maximum allowed average change of the speed per frame over the history window which is not
+     * explained by the measured acceleration
+     */
+    public float getMaxDrift() {
+        return maxDrift;
+    }
+
+    /**
+     * @return the expected change of the speed between consecutive frames per unit of acceleration
+     */
+    public float getSpeedPerAcceleration() {
+        return speedPerAcceleration;
+    }
+
+    /**
+     * @return how many standard deviations of the measured acceleration in the history window widen the allowed
+     * drift of the speed
+     */
+    public float getDeviationFactor() {
+        return deviationFactor;
+    }
+
+    /**
+     * @return the absolute acceleration above which the acceleration is considered notable
+     */
+    public float getNotableAcceleration() {
+        return notableAcceleration;
+    }
+
+    public boolean isApplicableToAutomatic(@NotNull Gear gear) {
+        return applicableToAutomatic[gear.ordinal()];
+    }
+
+    public boolean isApplicableToManual(@NotNull Gear gear) {
+        return applicableToManual[gear.ordinal()];
+    }
+
+    public int getLowestSpeed(@NotNull Gear gear) {
+        return lowestGearSpeed[gear.ordinal()];
+    }
+
+    public int getHighestSpeed(@NotNull Gear gear) {
+        return highestGearSpeed[gear.ordinal()];
+    }
+
+    public int getLowestRpm(@NotNull Gear gear) {
+        return lowestGearRpm[gear.ordinal()];
+    }
+
+    public int getHighestRpm(@NotNull Gear gear) {
+        return highestGearRpm[gear.ordinal()];
+    }
+
+    /**
+     * The limits of every gear indexed by the ordinal of the gear, filled before the profile is created.
+     */
+    private static final class GearLimits {
+
+        final boolean[] applicableToAutomatic = new boolean[GEAR_COUNT];
+        final boolean[] applicableToManual = new boolean[GEAR_COUNT];
+        final int[] lowestSpeed = new int[GEAR_COUNT];
+        final int[] highestSpeed = new int[GEAR_COUNT];
+        final int[] lowestRpm = new int[GEAR_COUNT];
+        final int[] highestRpm = new int[GEAR_COUNT];
+    }
+}
@@ -0,0 +1,107 @@
+package dashboard;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ArchiveProcessorTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void process_smallChunksInParallel_sameOutcomeAsSequentialDisplay() throws IOException {
+        List<String> lines = drive(new Random(7), 3000);
+        Path first = write("first.log", lines.subList(0, 1700), "\n");
+        Path second = write("second.log", lines.subList(1700, lines.size()), "\r\n");
+
+        List<String> outcomes = new ArrayList<>();
+        ForkJoinPool pool = new ForkJoinPool(4);
+        ArchiveResult result;
+        try {
+            ArchiveProcessor processor = new ArchiveProcessor(RuleEngine.defaultRules(true), 5, pool, 256);
+            result = processor.process(List.of(first, second),
+                    (dashboardData, violations) -> outcomes.add(dashboardData.toFrameString() + " " + violations));
+        } finally {
+            pool.shutdown();
+        }
+
+        CarDisplay carDisplay = new CarDisplay(true, 5, dashboardData -> { });
+        List<String> expectedOutcomes = new ArrayList<>();
+        int malformedCount = 0;
+        int acceptedCount = 0;
+        int outlierCount = 0;
+        for (String line : lines) {
+            DashboardData dashboardData;
+            try {
+                dashboardData = DashboardData.fromString(line);
+            } catch (RuntimeException e) {
+                malformedCount++;
+                continue;
+            }
+            int violations = carDisplay.tryCarDashboard(dashboardData);
+            expectedOutcomes.add(dashboardData.toFrameString() + " " + violations);
+            acceptedCount += violations == ValidationRule.NONE ? 1 : 0;
+            outlierCount += ValidationRule.OUTLIER_SPEED.isViolated(violations) ? 1 : 0;
+        }
+
+        assertEquals(expectedOutcomes, outcomes);
+        assertEquals(lines.size(), result.getFrameCount());
+        assertEquals(malformedCount, result.getMalformedCount());
+        assertEquals(acceptedCount, result.getAcceptedCount());
+        assertEquals(outlierCount, result.getViolationCount(ValidationRule.OUTLIER_SPEED));
+        assertTrue(malformedCount > 0);
+        assertTrue(outlierCount > 0);
+    }
+
+    @Test
+    void process_emptyLinesAndMissingLastLineFeed_countedLikeLinesOfDisplay() throws IOException {
+        Path file = directory.resolve("frames.log");
+        Files.writeString(file, "10|2000|1.13|D|true|false|true\n\n12|2100|1.2|D|true|false|true",
+                StandardCharsets.US_ASCII);
+
+        ArchiveResult result = new ArchiveProcessor(RuleEngine.defaultRules(true), 5).process(file);
+
+        assertEquals(3, result.getFrameCount());
+        assertEquals(2, result.getAcceptedCount());
+        assertEquals(1, result.getMalformedCount());
+    }
+
+    /**
+     * A random drive with sensor glitches and corrupted lines.
+     */
+    private static List<String> drive(Random random, int count) {
+        List<String> lines = new ArrayList<>();
+        double speed = 30;
+        for (int i = 0; i < count; i++) {
+            float acceleration = Math.round((random.nextFloat() - 0.5f) * 40) / 10f;
+            speed = Math.max(0, Math.min(200, speed + 1.8 * acceleration));
+            int measuredSpeed = (int) Math.round(speed);
+            if (random.nextInt(50) == 0) {
+                measuredSpeed += 40;
+            }
+            String line = measuredSpeed + "|" + (1000 + 20 * measuredSpeed) + "|" + acceleration + "|D|true|false|true";
+            if (random.nextInt(100) == 0) {
+                line = line.substring(0, random.nextInt(line.length()));
+            }
+            lines.add(line);
+        }
+        return lines;
+    }
+
+    private Path write(String name, List<String> lines, String lineSeparator) throws IOException {
+        Path file = directory.resolve(name);
+        Files.writeString(file, String.join(lineSeparator, lines) + lineSeparator, StandardCharsets.US_ASCII);
+        return file;
+    }
+}
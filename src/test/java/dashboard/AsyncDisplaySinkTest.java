@@ -0,0 +1,87 @@
+package dashboard;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class AsyncDisplaySinkTest {
+
+    @Test
+    void render_rendererIsBlocked_latestValuesRenderedAndRestCoalesced() throws InterruptedException {
+        CountDownLatch rendering = new CountDownLatch(1);
+        CountDownLatch unblock = new CountDownLatch(1);
+        List<Integer> renderedSpeeds = new CopyOnWriteArrayList<>();
+        AsyncDisplaySink sink = new AsyncDisplaySink(dashboardData -> {
+            renderedSpeeds.add(dashboardData.getSpeed());
+            rendering.countDown();
+            try {
+                unblock.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        CarDisplay carDisplay = new CarDisplay(true, 5, sink);
+
+        carDisplay.carDashboard("10|2000|1.13|D|true|false|true");
+        assertTrue(rendering.await(5, TimeUnit.SECONDS));
+        carDisplay.carDashboard("12|2100|1.2|D|true|false|true");
+        carDisplay.carDashboard("15|2340|1.4|D|true|false|true");
+        carDisplay.carDashboard("16|2360|1.42|D|true|false|true");
+        unblock.countDown();
+        sink.close();
+
+        assertEquals(List.of(10, 16), renderedSpeeds);
+        assertEquals(4, sink.getSubmittedCount());
+        assertEquals(2, sink.getRenderedCount());
+        assertEquals(2, sink.getCoalescedCount());
+        assertEquals(0, sink.getDroppedCount());
+    }
+
+    @Test
+    void render_pooledDisplayRecyclesWhileRendering_renderedValuesUnchanged() throws InterruptedException {
+        CountDownLatch rendering = new CountDownLatch(1);
+        CountDownLatch unblock = new CountDownLatch(1);
+        List<String> renderedFrames = new CopyOnWriteArrayList<>();
+        AsyncDisplaySink sink = new AsyncDisplaySink(dashboardData -> {
+            rendering.countDown();
+            try {
+                unblock.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            renderedFrames.add(dashboardData.toFrameString());
+        });
+        CarDisplay carDisplay = new CarDisplay(RuleEngine.defaultRules(true), new HistoryBuffer(5), sink, null,
+                null, true);
+
+        carDisplay.carDashboard("10|2000|1.13|D|true|false|true");
+        assertTrue(rendering.await(5, TimeUnit.SECONDS));
+        // enough accepted frames to recycle the instance of the first one
+        carDisplay.carDashboard("12|2100|1.2|D|true|false|true");
+        carDisplay.carDashboard("15|2340|1.4|D|true|false|true");
+        carDisplay.carDashboard("16|2360|1.42|D|true|false|true");
+        carDisplay.carDashboard("20|2120|1.25|D|true|false|true");
+        carDisplay.carDashboard("22|2068|1.12|D|true|false|true");
+        carDisplay.carDashboard("24|2100|1.2|D|true|false|true");
+        unblock.countDown();
+        sink.close();
+
+        assertEquals(List.of("10|2000|1.13|D|true|false|true", "24|2100|1.2|D|true|false|true"), renderedFrames);
+    }
+
+    @Test
+    void render_sinkIsClosed_valuesDropped() {
+        AsyncDisplaySink sink = new AsyncDisplaySink(dashboardData -> fail("Nothing shall be rendered."));
+        sink.close();
+
+        sink.render(DashboardData.fromString("0|0|0|P|false|false|false"));
+
+        assertEquals(0, sink.getSubmittedCount());
+        assertEquals(1, sink.getDroppedCount());
+    }
+}
@@ -0,0 +1,83 @@
+package dashboard;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class BinaryFrameCodecTest {
+
+    @Test
+    void decode_encodedValues_sameValues() {
+        DashboardData original = DashboardData.fromString("-20|2400|-1.2|R|true|false|true");
+        ByteBuffer buffer = ByteBuffer.allocate(BinaryFrameCodec.FRAME_LENGTH).order(ByteOrder.LITTLE_ENDIAN);
+
+        BinaryFrameCodec.encode(original, buffer);
+        buffer.flip();
+        DashboardData decoded = new DashboardData();
+        BinaryFrameCodec.decode(buffer, decoded);
+
+        assertEquals(original.toString(), decoded.toString());
+        assertFalse(buffer.hasRemaining());
+    }
+
+    @Test
+    void decode_undefinedVersionOrFlags_illegalArgumentExceptionThrown() {
+        ByteBuffer buffer = encode("0|0|0|P|false|false|false");
+        buffer.put(0, (byte) 2);
+        IllegalArgumentException thrown = assertThrows(
+                IllegalArgumentException.class,
+                () -> BinaryFrameCodec.decode(buffer, new DashboardData())
+        );
+        assertEquals("Unsupported version of the binary frame.", thrown.getMessage());
+
+        buffer.put(0, BinaryFrameCodec.VERSION);
+        buffer.put(1, (byte) 0x10);
+        assertThrows(IllegalArgumentException.class, () -> BinaryFrameCodec.decode(buffer, new DashboardData()));
+        assertEquals(0, buffer.position());
+    }
+
+    @Test
+    void encode_speedDoesNotFitIntoShort_illegalArgumentExceptionThrown() {
+        DashboardData dashboardData = DashboardData.fromString("40000|0|0|P|false|false|false");
+        assertThrows(
+                IllegalArgumentException.class,
+                () -> BinaryFrameCodec.encode(dashboardData, ByteBuffer.allocate(BinaryFrameCodec.FRAME_LENGTH))
+        );
+    }
+
+    @Test
+    void carDashboardBinaryBatch_invalidFramesInBatch_sameOutcomeAsText() {
+        CarDisplay carDisplay = new CarDisplay(true);
+        ByteBuffer frames = ByteBuffer.allocate(3 * BinaryFrameCodec.FRAME_LENGTH);
+        frames.put(encode("10|2000|1.13|D|true|false|true"));
+        frames.put(encode("120|2283|1.3|D|true|false|true"));
+        frames.put(encode("12|2100|1.2|D|true|false|true"));
+        frames.flip();
+
+        BatchResult result = carDisplay.carDashboardBinaryBatch(frames);
+
+        assertEquals(2, result.getAcceptedCount());
+        assertEquals(ValidationRule.OUTLIER_SPEED.getMask(), result.getViolations(1));
+        assertEquals(12, carDisplay.getLatestHistoricalValue().getSpeed());
+        assertEquals(1.2f, carDisplay.getLatestHistoricalValue().getAcceleration());
+        assertFalse(frames.hasRemaining());
+    }
+
+    @Test
+    void carDashboardBinary_speedOutOfRange_illegalArgumentExceptionThrown() {
+        IllegalArgumentException thrown = assertThrows(
+                IllegalArgumentException.class,
+                () -> new CarDisplay(true).carDashboardBinary(encode("351|7200|0.2|D|true|false|true"))
+        );
+        assertEquals("The speed is out of range.", thrown.getMessage());
+    }
+
+    private static ByteBuffer encode(String frame) {
+        ByteBuffer buffer = ByteBuffer.allocate(BinaryFrameCodec.FRAME_LENGTH);
+        BinaryFrameCodec.encode(DashboardData.fromString(frame), buffer);
+        return buffer.flip();
+    }
+}
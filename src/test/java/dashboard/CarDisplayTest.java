@@ -3,6 +3,7 @@ package dashboard;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
+import java.util.EnumSet;
 import java.util.List;
 import java.util.stream.Collectors;
 
@@ -165,6 +166,28 @@ public class CarDisplayTest {
         assertEquals("Outlier speed value based on history.", thrown.getMessage());
     }
 
+    @Test
+    void tryCarDashboard_hardBrakingRightAfterFirstFrame_accepted() {
+        carDisplay.carDashboard("100|3000|0.0|D|true|false|true");
+
+        assertEquals(ValidationRule.NONE, carDisplay.tryCarDashboard("84|3000|-8.0|D|true|false|true"));
+        assertEquals(ValidationRule.OUTLIER_SPEED.getMask(),
+                carDisplay.tryCarDashboard("60|3000|-8.0|D|true|false|true"));
+    }
+
+    @Test
+    void tryCarDashboard_accelerationNotFinite_rejectedAndDriftStillDetected() {
+        carDisplay.carDashboard("100|3000|0.0|D|true|false|true");
+        carDisplay.carDashboard("104|3000|0.0|D|true|false|true");
+
+        assertEquals(ValidationRule.ACCELERATION_NOT_FINITE.getMask(),
+                carDisplay.tryCarDashboard("104|3000|NaN|D|true|false|true"));
+        assertEquals(ValidationRule.ACCELERATION_NOT_FINITE.getMask(),
+                carDisplay.tryCarDashboard("104|3000|-Infinity|D|true|false|true"));
+        assertEquals(ValidationRule.OUTLIER_SPEED.getMask(),
+                carDisplay.tryCarDashboard("108|3000|0.0|D|true|false|true"));
+    }
+
     @Test
     void carDashboard_outlierSpeedValueWithLongHistory_illegalStateExceptionThrown() {
         carDisplay.carDashboard("10|2000|1.13|D|true|false|true");
@@ -203,4 +226,90 @@ public class CarDisplayTest {
         assertEquals(20, speedHistory.get(3));
         assertEquals(22, speedHistory.get(4));
     }
+
+    @Test
+    void getHistoricalValues_configuredWindowLength_onlyLatestValuesKept() {
+        CarDisplay shortHistoryCarDisplay = new CarDisplay(true, 2);
+        assertTrue(shortHistoryCarDisplay.getHistoricalValues().isEmpty());
+        assertNull(shortHistoryCarDisplay.getLatestHistoricalValue());
+
+        shortHistoryCarDisplay.carDashboard("10|2000|1.13|D|true|false|true");
+        shortHistoryCarDisplay.carDashboard("12|2100|1.2|D|true|false|true");
+        shortHistoryCarDisplay.carDashboard("15|2340|1.4|D|true|false|true");
+
+        List<Integer> speedHistory = shortHistoryCarDisplay.getHistoricalValues().stream()
+                .map(DashboardData::getSpeed)
+                .collect(Collectors.toList());
+        assertEquals(List.of(12, 15), speedHistory);
+        assertEquals(15, shortHistoryCarDisplay.getLatestHistoricalValue().getSpeed());
+        assertThrows(UnsupportedOperationException.class, () -> shortHistoryCarDisplay.getHistoricalValues().clear());
+    }
+
+    @Test
+    void constructor_historyWindowLengthIsNotPositive_illegalArgumentExceptionThrown() {
+        assertThrows(IllegalArgumentException.class, () -> new CarDisplay(true, 0));
+    }
+
+    @Test
+    void carDashboardBatch_invalidFramesInBatch_restOfBatchProcessed() {
+        BatchResult result = carDisplay.carDashboardBatch(List.of(
+                "10|2000|1.13|D|true|false|true",
+                "12|2100|1.2|D|true|false|true",
+                "120|2283|1.3|D|true|false|true",
+                "20ABC|3200|2.3|D|true|false|true",
+                "15|2340|1.4|D|true|false|true"
+        ));
+
+        assertEquals(5, result.size());
+        assertEquals(3, result.getAcceptedCount());
+        assertEquals(2, result.getRejectedCount());
+        assertTrue(result.isAccepted(0));
+        assertEquals("Outlier speed value based on history.", result.getRejection(2).getMessage());
+        assertEquals(ValidationRule.OUTLIER_SPEED.getMask(), result.getViolations(2));
+        assertInstanceOf(NumberFormatException.class, result.getRejection(3));
+        assertEquals(15, carDisplay.getLatestHistoricalValue().getSpeed());
+    }
+
+    @Test
+    void carDashboardLines_newlineSeparatedFrames_sameOutcomeAsBatch() {
+        BatchResult result = carDisplay.carDashboardLines(
+                "10|2000|1.13|D|true|false|true\r\n" +
+                "\n" +
+                "351|7200|0.2|D|true|false|true\n" +
+                "12|2100|1.2|D|true|false|true\n"
+        );
+
+        assertEquals(4, result.size());
+        assertTrue(result.isAccepted(0));
+        assertEquals("Unexpected number of parameters in the input.", result.getRejection(1).getMessage());
+        assertEquals("The speed is out of range.", result.getRejection(2).getMessage());
+        assertTrue(result.isAccepted(3));
+        assertEquals(2, carDisplay.getHistoricalValues().size());
+    }
+
+    @Test
+    void tryCarDashboard_severalRulesViolated_everyViolationReported() {
+        carDisplay.carDashboard("10|2000|1.13|D|true|false|true");
+
+        int violations = carDisplay.tryCarDashboard("351|9000|0.2|1|true|false|false");
+
+        assertEquals(
+                EnumSet.of(
+                        ValidationRule.SPEED_OUT_OF_RANGE,
+                        ValidationRule.ENGINE_NOT_RUNNING,
+                        ValidationRule.SPEED_OUT_OF_GEAR_RANGE,
+                        ValidationRule.RPM_OUT_OF_GEAR_RANGE,
+                        ValidationRule.OUTLIER_SPEED
+                ),
+                ValidationRule.violatedRules(violations)
+        );
+        assertEquals(ValidationRule.SPEED_OUT_OF_RANGE, ValidationRule.firstViolated(violations));
+        assertEquals(1, carDisplay.getHistoricalValues().size());
+    }
+
+    @Test
+    void tryCarDashboard_inputIsValid_noViolationReportedAndHistoryUpdated() {
+        assertEquals(ValidationRule.NONE, carDisplay.tryCarDashboard("100|3200|2.3|D|true|false|true"));
+        assertEquals(100, carDisplay.getLatestHistoricalValue().getSpeed());
+    }
 }
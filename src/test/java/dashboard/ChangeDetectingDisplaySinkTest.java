@@ -0,0 +1,142 @@
+package dashboard;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static dashboard.DashboardData.fromString;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ChangeDetectingDisplaySinkTest {
+
+    private final List<Integer> updates = new ArrayList<>();
+    private final List<String> shownValues = new ArrayList<>();
+    private long now;
+
+    private final ChangeDetectingDisplaySink sink = new ChangeDetectingDisplaySink((dashboardData, changes) -> {
+        updates.add(changes);
+        shownValues.add(dashboardData.toFrameString());
+    }, () -> now);
+
+    @Test
+    void render_firstValues_everyIndicatorUpdated() {
+        sink.render(fromString("10|2000|1.13|D|true|false|true"));
+
+        assertEquals(List.of(Indicator.ALL), updates);
+        assertEquals(List.of("10|2000|1.13|D|true|false|true"), shownValues);
+    }
+
+    @Test
+    void render_changesWithinDeadbands_nothingUpdated() {
+        sink.render(fromString("10|2000|1.13|D|true|false|true"));
+        sink.render(fromString("11|2050|1.2|D|true|false|true"));
+        sink.render(fromString("9|1950|1.05|D|true|false|true"));
+
+        assertEquals(1, updates.size());
+        assertEquals(3, sink.getReceivedCount());
+        assertEquals(1, sink.getUpdateCount());
+    }
+
+    @Test
+    void render_changesBeyondDeadbands_onlyChangedIndicatorsUpdated() {
+        sink.render(fromString("10|2000|1.13|D|true|false|true"));
+        sink.render(fromString("12|2040|1.13|D|false|false|true"));
+
+        assertEquals(Indicator.SPEED.getMask() | Indicator.HEADLIGHTS.getMask(), updates.get(1));
+        assertEquals("12|2000|1.13|D|false|false|true", shownValues.get(1));
+        assertEquals(2, sink.getUpdateCount(Indicator.SPEED));
+        assertEquals(1, sink.getUpdateCount(Indicator.RPM));
+    }
+
+    @Test
+    void render_deadbandAccumulatedSlowly_comparedToShownValue() {
+        sink.render(fromString("10|2000|1.13|D|true|false|true"));
+        sink.render(fromString("11|2000|1.13|D|true|false|true"));
+        sink.render(fromString("12|2000|1.13|D|true|false|true"));
+
+        assertEquals(List.of(Indicator.ALL, Indicator.SPEED.getMask()), updates);
+    }
+
+    @Test
+    void render_zeroDeadband_everyChangeUpdated() {
+        sink.setDeadband(Indicator.RPM, 0);
+        sink.render(fromString("10|2000|1.13|D|true|false|true"));
+        sink.render(fromString("10|2001|1.13|D|true|false|true"));
+
+        assertEquals(List.of(Indicator.ALL, Indicator.RPM.getMask()), updates);
+    }
+
+    @Test
+    void render_throttledIndicator_changeShownAfterInterval() {
+        sink.setMaxRefreshRate(Indicator.SPEED, 10);
+        sink.render(fromString("10|2000|1.13|D|true|false|true"));
+        now += TimeUnit.MILLISECONDS.toNanos(50);
+        sink.render(fromString("20|2000|1.13|D|false|false|true"));
+        now += TimeUnit.MILLISECONDS.toNanos(50);
+        sink.render(fromString("25|2000|1.13|D|false|false|true"));
+
+        assertEquals(
+                List.of(Indicator.ALL, Indicator.HEADLIGHTS.getMask(), Indicator.SPEED.getMask()),
+                updates
+        );
+        assertEquals("25|2000|1.13|D|false|false|true", shownValues.get(2));
+    }
+
+    @Test
+    void flush_heldBackChangeWithoutFurtherValue_changeShownAfterInterval() {
+        sink.setMaxRefreshRate(Indicator.SPEED, 10);
+        sink.render(fromString("10|2000|1.13|D|true|false|true"));
+        now += TimeUnit.MILLISECONDS.toNanos(50);
+        sink.render(fromString("20|2000|1.13|D|false|false|true"));
+        now += TimeUnit.MILLISECONDS.toNanos(30);
+        sink.render(fromString("20|2000|1.13|D|false|false|true"));
+
+        assertTrue(sink.hasHeldBackChanges());
+        assertFalse(sink.flush());
+        now += TimeUnit.MILLISECONDS.toNanos(20);
+        assertTrue(sink.flush());
+        assertFalse(sink.hasHeldBackChanges());
+        assertFalse(sink.flush());
+
+        assertEquals(
+                List.of(Indicator.ALL, Indicator.HEADLIGHTS.getMask(), Indicator.SPEED.getMask()),
+                updates
+        );
+        assertEquals("20|2000|1.13|D|false|false|true", shownValues.get(2));
+        assertEquals(3, sink.getReceivedCount());
+        assertEquals(3, sink.getUpdateCount());
+    }
+
+    @Test
+    void flush_heldBackChangeRevertedByLaterValue_nothingUpdated() {
+        sink.setMaxRefreshRate(Indicator.SPEED, 10);
+        sink.render(fromString("10|2000|1.13|D|true|false|true"));
+        now += TimeUnit.MILLISECONDS.toNanos(50);
+        sink.render(fromString("20|2000|1.13|D|true|false|true"));
+        sink.render(fromString("10|2000|1.13|D|true|false|true"));
+        now += TimeUnit.MILLISECONDS.toNanos(100);
+
+        assertFalse(sink.flush());
+        assertEquals(List.of(Indicator.ALL), updates);
+    }
+
+    @Test
+    void setDeadband_indicatorWithoutDeadband_illegalArgumentExceptionThrown() {
+        assertThrows(IllegalArgumentException.class, () -> sink.setDeadband(Indicator.GEAR, 1));
+        assertThrows(IllegalArgumentException.class, () -> sink.setDeadband(Indicator.SPEED, -1));
+    }
+
+    @Test
+    void carDashboard_repeatedValues_displayUpdatedOnce() {
+        CarDisplay carDisplay = new CarDisplay(true, 5, sink);
+
+        for (int i = 0; i < 100; i++) {
+            carDisplay.carDashboard("10|2000|0.0|D|true|false|true");
+        }
+
+        assertEquals(100, sink.getReceivedCount());
+        assertEquals(1, sink.getUpdateCount());
+    }
+}
@@ -0,0 +1,113 @@
+package dashboard;
+
+import com.sun.management.ThreadMXBean;
+import org.junit.jupiter.api.Test;
+
+import java.lang.management.ManagementFactory;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class DashboardDataPoolTest {
+
+    private static final String[] FRAMES = {
+            "10|2000|0.0|D|true|false|true",
+            "11|2050|0.0|D|true|false|true",
+            "120|2283|1.3|D|true|false|true",
+            "12|2100|0.0|D|true|false|true",
+            "11|2050|0.0|D|true|false|true"
+    };
+
+    @Test
+    void tryCarDashboard_pooledDisplay_historyHoldsTheRenderedInstances() {
+        List<DashboardData> rendered = new ArrayList<>();
+        CarDisplay carDisplay = pooledDisplay(3, rendered::add);
+
+        for (String frame : FRAMES) {
+            carDisplay.tryCarDashboard(frame);
+        }
+
+        List<DashboardData> history = carDisplay.getHistoricalValues();
+        assertEquals(3, history.size());
+        assertSame(rendered.get(1), history.get(0));
+        assertSame(rendered.get(2), history.get(1));
+        assertSame(rendered.get(3), history.get(2));
+        assertEquals(11, history.get(0).getSpeed());
+        assertEquals(12, history.get(1).getSpeed());
+        assertEquals(11, history.get(2).getSpeed());
+    }
+
+    @Test
+    void tryCarDashboard_valuesFellOffTheWindow_instanceRecycled() {
+        List<DashboardData> rendered = new ArrayList<>();
+        CarDisplay carDisplay = pooledDisplay(2, rendered::add);
+
+        for (String frame : FRAMES) {
+            carDisplay.tryCarDashboard(frame);
+        }
+
+        // 4 accepted frames share the 3 instances of a window of 2 values
+        assertEquals(4, rendered.size());
+        assertSame(rendered.get(0), rendered.get(3));
+        assertNotSame(rendered.get(1), rendered.get(3));
+        assertNotSame(rendered.get(2), rendered.get(3));
+        assertEquals(12, rendered.get(2).getSpeed());
+    }
+
+    @Test
+    void tryCarDashboard_instanceOfTheCaller_historyStillConsistent() {
+        CarDisplay carDisplay = pooledDisplay(3, dashboardData -> { });
+        DashboardData own = DashboardData.fromString("11|2050|0.0|D|true|false|true");
+
+        carDisplay.tryCarDashboard(FRAMES[0]);
+        carDisplay.tryCarDashboard(own);
+        carDisplay.tryCarDashboard(FRAMES[3]);
+
+        List<DashboardData> history = carDisplay.getHistoricalValues();
+        assertEquals(10, history.get(0).getSpeed());
+        assertEquals(11, history.get(1).getSpeed());
+        assertNotSame(own, history.get(1));
+        assertEquals(12, history.get(2).getSpeed());
+        assertSame(history.get(2), history.get(2));
+    }
+
+    @Test
+    void tryCarDashboard_steadyState_noAllocation() {
+        ThreadMXBean threads = (ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long threadId = Thread.currentThread().getId();
+        DashboardData[] lastRendered = new DashboardData[1];
+        CarDisplay carDisplay = pooledDisplay(5, dashboardData -> lastRendered[0] = dashboardData);
+        ByteBuffer binaryFrame = ByteBuffer.allocate(BinaryFrameCodec.FRAME_LENGTH);
+        BinaryFrameCodec.encode(DashboardData.fromString(FRAMES[1]), binaryFrame);
+        ingest(carDisplay, binaryFrame, 1_000);
+        threads.getThreadAllocatedBytes(threadId);
+
+        long before = threads.getThreadAllocatedBytes(threadId);
+        int violations = ingest(carDisplay, binaryFrame, 10_000);
+        long allocated = threads.getThreadAllocatedBytes(threadId) - before;
+
+        assertEquals(ValidationRule.NONE, violations);
+        assertEquals(11, lastRendered[0].getSpeed());
+        // an instance per frame would take at least 16 bytes per frame, the runtime may allocate a few bytes
+        // regardless of the number of frames, e.g. while compiling the methods
+        assertTrue(allocated < 20_000, allocated + " bytes allocated for 20000 frames");
+    }
+
+    private static int ingest(CarDisplay carDisplay, ByteBuffer binaryFrame, int count) {
+        int violations = ValidationRule.NONE;
+        for (int i = 0; i < count; i++) {
+            violations |= carDisplay.tryCarDashboard(FRAMES[i % 2]);
+            binaryFrame.rewind();
+            carDisplay.carDashboardBinary(binaryFrame);
+        }
+        return violations;
+    }
+
+    private static CarDisplay pooledDisplay(int historyLength, DisplaySink displaySink) {
+        return new CarDisplay(
+                RuleEngine.defaultRules(true), new HistoryBuffer(historyLength), displaySink, null, null, true
+        );
+    }
+}
@@ -0,0 +1,142 @@
+package dashboard;
+
+import org.junit.jupiter.api.Test;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.nio.ByteBuffer;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class DashboardMetricsTest {
+
+    @Test
+    void carDashboard_instrumentedDisplay_outcomesAndLatenciesRecorded() {
+        DashboardMetrics metrics = new DashboardMetrics(1);
+        CarDisplay carDisplay = new CarDisplay(
+                RuleEngine.defaultRules(true), new HistoryBuffer(5), dashboardData -> { }, null, metrics
+        );
+
+        carDisplay.carDashboard("10|2000|1.13|D|true|false|true");
+        assertThrows(IllegalStateException.class, () -> carDisplay.carDashboard("120|2283|1.3|D|true|false|true"));
+        assertThrows(NumberFormatException.class, () -> carDisplay.carDashboard("20ABC|3200|2.3|D|true|false|true"));
+        carDisplay.tryCarDashboard("351|9000|0.2|1|true|false|false");
+        carDisplay.carDashboardBatch(List.of("12|2100|1.2|D|true|false|true", "12|2100|1.2|D|true"));
+
+        DashboardMetrics.Snapshot snapshot = metrics.snapshot();
+        assertEquals(6, snapshot.getFrameCount());
+        assertEquals(2, snapshot.getAcceptedFrameCount());
+        assertEquals(4, snapshot.getRejectedFrameCount());
+        assertEquals(2, snapshot.getViolationCounts().get(ValidationRule.OUTLIER_SPEED));
+        assertEquals(1, snapshot.getViolationCounts().get(ValidationRule.RPM_OUT_OF_GEAR_RANGE));
+        assertEquals(0, snapshot.getViolationCounts().get(ValidationRule.GEAR_NOT_APPLICABLE_TO_TRANSMISSION));
+        assertEquals(
+                Map.of("IllegalArgumentException", 1L, "NumberFormatException", 1L),
+                snapshot.getParseFailureCounts()
+        );
+        // the malformed frame of the batch is not timed, like the malformed single frames
+        assertEquals(4, snapshot.getParseLatency().getCount());
+        assertEquals(4, snapshot.getValidationLatency().getCount());
+        assertEquals(2, snapshot.getDisplayLatency().getCount());
+    }
+
+    @Test
+    void carDashboardLinesAndBinary_instrumentedDisplay_everyDecodedFrameTimed() {
+        DashboardMetrics metrics = new DashboardMetrics(1);
+        CarDisplay carDisplay = new CarDisplay(
+                RuleEngine.defaultRules(true), new HistoryBuffer(5), dashboardData -> { }, null, metrics
+        );
+        ByteBuffer frames = ByteBuffer.allocate(3 * BinaryFrameCodec.FRAME_LENGTH);
+        for (String frame : new String[] {
+                "15|2340|1.4|D|true|false|true",
+                "16|2360|1.42|D|true|false|true",
+                "17|2380|1.44|D|true|false|true"
+        }) {
+            BinaryFrameCodec.encode(DashboardData.fromString(frame), frames);
+        }
+        frames.flip();
+
+        carDisplay.carDashboardLines("10|2000|1.13|D|true|false|true\n12|2100|1.2|D|true|false|true");
+        carDisplay.carDashboardBinary(frames.slice(0, BinaryFrameCodec.FRAME_LENGTH));
+        carDisplay.carDashboardBinaryBatch(frames.position(BinaryFrameCodec.FRAME_LENGTH));
+
+        DashboardMetrics.Snapshot snapshot = metrics.snapshot();
+        assertEquals(5, snapshot.getAcceptedFrameCount());
+        assertEquals(5, snapshot.getParseLatency().getCount());
+        assertEquals(5, snapshot.getValidationLatency().getCount());
+    }
+
+    @Test
+    void flushMetrics_fewerAcceptedFramesThanChunk_everyFramePublished() {
+        DashboardMetrics metrics = new DashboardMetrics();
+        CarDisplay carDisplay = new CarDisplay(
+                RuleEngine.defaultRules(true), new HistoryBuffer(5), dashboardData -> { }, null, metrics
+        );
+
+        carDisplay.carDashboard("10|2000|1.13|D|true|false|true");
+        carDisplay.carDashboard("12|2100|1.2|D|true|false|true");
+        assertEquals(0, metrics.getAcceptedFrameCount());
+        carDisplay.flushMetrics();
+        assertEquals(2, metrics.getAcceptedFrameCount());
+
+        carDisplay.carDashboardLines("15|2340|1.4|D|true|false|true\n16|2360|1.42|D|true|false|true");
+        assertEquals(4, metrics.getFrameCount());
+        assertEquals(4, metrics.getAcceptedFrameCount());
+    }
+
+    @Test
+    void valueAtPercentile_recordedLatencies_withinPrecisionOfBuckets() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (long nanos = 1; nanos <= 100_000; nanos++) {
+            histogram.record(nanos);
+        }
+
+        LatencyHistogram.Snapshot snapshot = histogram.snapshot();
+        assertEquals(100_000, snapshot.getCount());
+        assertEquals(50_000.5, snapshot.getMean());
+        assertEquals(50_000, snapshot.getValueAtPercentile(50), 50_000 / 32.0);
+        assertEquals(99_000, snapshot.getValueAtPercentile(99), 99_000 / 32.0);
+        assertEquals(100_000, snapshot.getMax(), 100_000 / 32.0);
+        assertEquals(1, snapshot.getValueAtPercentile(0));
+    }
+
+    @Test
+    void recorder_samplingIntervalOfFour_everyFourthLatencyMeasuredAndAcceptedFramesPublishedInChunks() {
+        DashboardMetrics metrics = new DashboardMetrics(4);
+        DashboardMetrics.Recorder recorder = metrics.newRecorder();
+        for (int i = 0; i < 11; i++) {
+            recorder.stop(DashboardMetrics.VALIDATION, recorder.start(DashboardMetrics.VALIDATION));
+            recorder.recordFrame(ValidationRule.NONE);
+        }
+        assertEquals(3, metrics.snapshot().getValidationLatency().getCount());
+        assertEquals(8, metrics.getAcceptedFrameCount());
+
+        recorder.recordFrame(ValidationRule.ENGINE_NOT_RUNNING.getMask());
+        assertEquals(12, metrics.getFrameCount());
+        assertEquals(11, metrics.getAcceptedFrameCount());
+        assertEquals(1, metrics.getRejectedFrameCount());
+    }
+
+    @Test
+    void registerMBean_metricsRegistered_attributesExported() throws JMException {
+        DashboardMetrics metrics = new DashboardMetrics();
+        DashboardMetrics.Recorder recorder = metrics.newRecorder();
+        recorder.recordFrame(ValidationRule.NONE);
+        recorder.recordFrame(ValidationRule.ENGINE_NOT_RUNNING.getMask());
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+
+        ObjectName name = metrics.registerMBean("test-vehicle");
+        try {
+            assertEquals(2L, server.getAttribute(name, "FrameCount"));
+            assertEquals(1L, server.getAttribute(name, "RejectedFrameCount"));
+            assertNotNull(server.getAttribute(name, "ViolationCounts"));
+            assertNotNull(server.getAttribute(name, "ParseLatency"));
+        } finally {
+            server.unregisterMBean(name);
+        }
+    }
+}
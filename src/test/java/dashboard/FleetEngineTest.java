@@ -0,0 +1,125 @@
+package dashboard;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class FleetEngineTest {
+
+    @Test
+    void submit_framesOfManyVehicles_everyVehicleDisplaysItsFramesInOrder() throws InterruptedException {
+        Map<String, List<Integer>> displayedSpeeds = new ConcurrentHashMap<>();
+        FleetEngine fleetEngine = new FleetEngine(4, 16, vehicleId -> {
+            List<Integer> speeds = new CopyOnWriteArrayList<>();
+            displayedSpeeds.put(vehicleId, speeds);
+            return new CarDisplay(true, 5, dashboardData -> speeds.add(dashboardData.getSpeed()));
+        });
+
+        for (String frame : List.of(
+                "10|2000|1.13|D|true|false|true",
+                "12|2100|1.2|D|true|false|true",
+                "120|2283|1.3|D|true|false|true",
+                "15|2340|1.4|D|true|false|true"
+        )) {
+            for (int vehicle = 0; vehicle < 100; vehicle++) {
+                fleetEngine.submit("vehicle-" + vehicle, frame);
+            }
+        }
+        fleetEngine.close();
+
+        assertEquals(100, displayedSpeeds.size());
+        displayedSpeeds.values().forEach(speeds -> assertEquals(List.of(10, 12, 15), speeds));
+        long accepted = 0;
+        long rejected = 0;
+        int vehicles = 0;
+        for (int shard = 0; shard < fleetEngine.getShardCount(); shard++) {
+            accepted += fleetEngine.getAcceptedCount(shard);
+            rejected += fleetEngine.getRejectedCount(shard);
+            vehicles += fleetEngine.getVehicleCount(shard);
+            assertEquals(0, fleetEngine.getQueueDepth(shard));
+        }
+        assertEquals(300, accepted);
+        assertEquals(100, rejected);
+        assertEquals(100, vehicles);
+        assertThrows(
+                IllegalStateException.class,
+                () -> fleetEngine.trySubmit("vehicle-0", "0|0|0|P|false|false|false")
+        );
+    }
+
+    @Test
+    void close_fewerFramesThanMetricsChunk_everyFramePublished() throws InterruptedException {
+        DashboardMetrics metrics = new DashboardMetrics();
+        FleetEngine fleetEngine = new FleetEngine(2, 16, vehicleId -> new CarDisplay(
+                RuleEngine.defaultRules(true), new HistoryBuffer(5), dashboardData -> { }, null, metrics
+        ));
+
+        for (int vehicle = 0; vehicle < 10; vehicle++) {
+            fleetEngine.submit("vehicle-" + vehicle, "10|2000|1.13|D|true|false|true");
+            fleetEngine.submit("vehicle-" + vehicle, "12|2100|1.2|D|true|false|true");
+        }
+        fleetEngine.close();
+
+        assertEquals(20, metrics.getFrameCount());
+        assertEquals(20, metrics.getAcceptedFrameCount());
+    }
+
+    @Test
+    void submit_shardGoesIdle_metricsOfProcessedVehiclesPublished() throws InterruptedException {
+        DashboardMetrics metrics = new DashboardMetrics();
+        FleetEngine fleetEngine = new FleetEngine(1, 16, vehicleId -> new CarDisplay(
+                RuleEngine.defaultRules(true), new HistoryBuffer(5), dashboardData -> { }, null, metrics
+        ));
+
+        for (int vehicle = 0; vehicle < 3; vehicle++) {
+            fleetEngine.submit("vehicle-" + vehicle, "10|2000|1.13|D|true|false|true");
+        }
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (metrics.getFrameCount() < 3 && System.nanoTime() < deadline) {
+            Thread.sleep(1);
+        }
+        assertEquals(3, metrics.getFrameCount());
+
+        fleetEngine.submit("vehicle-1", "12|2100|1.2|D|true|false|true");
+        deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (metrics.getFrameCount() < 4 && System.nanoTime() < deadline) {
+            Thread.sleep(1);
+        }
+        assertEquals(4, metrics.getAcceptedFrameCount());
+        fleetEngine.close();
+        assertEquals(4, metrics.getFrameCount());
+    }
+
+    @Test
+    void trySubmit_shardIsBusyAndQueueIsFull_frameRefused() throws InterruptedException {
+        CountDownLatch rendering = new CountDownLatch(1);
+        CountDownLatch unblock = new CountDownLatch(1);
+        FleetEngine fleetEngine = new FleetEngine(1, 1, vehicleId -> new CarDisplay(true, 5, dashboardData -> {
+            rendering.countDown();
+            try {
+                unblock.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }));
+
+        assertTrue(fleetEngine.trySubmit("vehicle", "10|2000|1.13|D|true|false|true"));
+        assertTrue(rendering.await(5, TimeUnit.SECONDS));
+        assertTrue(fleetEngine.trySubmit("vehicle", "12|2100|1.2|D|true|false|true"));
+        assertFalse(fleetEngine.trySubmit("vehicle", "15|2340|1.4|D|true|false|true"));
+        assertEquals(1, fleetEngine.getQueueDepth(0));
+        assertEquals(1, fleetEngine.getRefusedCount(0));
+
+        unblock.countDown();
+        fleetEngine.close();
+        assertEquals(2, fleetEngine.getAcceptedCount(0));
+        assertEquals(0, fleetEngine.getDroppedCount(0));
+    }
+}
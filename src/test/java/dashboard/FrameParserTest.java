@@ -0,0 +1,92 @@
+package dashboard;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class FrameParserTest {
+
+    @ParameterizedTest
+    @ValueSource(strings = {"-2147483648", "2147483647", "+42", "-0", "007", "", "-", "+", "2147483648", "-2147483649", "1a", " 1"})
+    void parseInt_behavesLikeIntegerParseInt(String value) {
+        Integer expected;
+        try {
+            expected = Integer.parseInt(value);
+        } catch (NumberFormatException e) {
+            assertThrows(NumberFormatException.class, () -> FrameParser.parseInt(value, 0, value.length()));
+            return;
+        }
+        assertEquals(expected, FrameParser.parseInt(value, 0, value.length()));
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"0", "-0", "2.3", "-5.7", "1.13", ".5", "5.", "16777215", "16777217", "0.1234567891",
+            "1e3", " 1.5 ", "NaN", "-Infinity", "1.5f", "", ".", "-", "1.2.3", "abc"})
+    void parseFloat_behavesLikeFloatParseFloat(String value) {
+        Float expected;
+        try {
+            expected = Float.parseFloat(value);
+        } catch (NumberFormatException e) {
+            assertThrows(NumberFormatException.class, () -> FrameParser.parseFloat(value, 0, value.length()));
+            return;
+        }
+        assertEquals(Float.floatToIntBits(expected), Float.floatToIntBits(FrameParser.parseFloat(value, 0, value.length())));
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"true", "TRUE", "tRuE", "false", "", "truee", "yes"})
+    void parseBoolean_behavesLikeBooleanParseBoolean(String value) {
+        assertEquals(Boolean.parseBoolean(value), FrameParser.parseBoolean(value, 0, value.length()));
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"", "|", "||||||", "1|2|3|4|5|6|7", "1|2|3|4|5|6|7|", "1|2|3|4|5|6|7||", "|2|3|4|5|6|7", "1|2|3|4|5|6|"})
+    void countFields_behavesLikeStringSplit(String value) {
+        assertEquals(value.split("\\|").length, FrameParser.countFields(value, 0, value.length()));
+    }
+
+    @Test
+    void parse_frameHasTrailingDelimiter_parsedLikeStringSplit() {
+        DashboardData dashboardData = new DashboardData();
+        FrameParser.parse("100|3200|2.3|D|true|false|true|", dashboardData);
+        assertEquals(100, dashboardData.getSpeed());
+        assertTrue(dashboardData.isEngineStarted());
+    }
+
+    @Test
+    void parse_byteArrayAndBufferAndString_sameResult() {
+        String frame = "xx-20|2400|-1.2|r|TRUE|false|true";
+        byte[] bytes = frame.getBytes(StandardCharsets.US_ASCII);
+        FrameParser parser = new FrameParser();
+
+        DashboardData fromString = new DashboardData();
+        FrameParser.parse(frame, 2, frame.length(), fromString);
+        DashboardData fromArray = new DashboardData();
+        parser.parse(bytes, 2, bytes.length - 2, fromArray);
+        DashboardData fromBuffer = new DashboardData();
+        ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        buffer.position(2);
+        parser.parse(buffer, fromBuffer);
+
+        assertEquals(fromString.toString(), fromArray.toString());
+        assertEquals(fromString.toString(), fromBuffer.toString());
+        assertEquals(2, buffer.position());
+        assertEquals(-20, fromString.getSpeed());
+        assertEquals(Gear.R, fromString.getGear());
+    }
+
+    @Test
+    void parse_byteArrayHasNonNumericSpeed_numberFormatExceptionThrown() {
+        byte[] bytes = "20ABC|3200|2.3|D|true|false|true".getBytes(StandardCharsets.US_ASCII);
+        NumberFormatException thrown = assertThrows(
+                NumberFormatException.class,
+                () -> new FrameParser().parse(bytes, 0, bytes.length, new DashboardData())
+        );
+        assertEquals("For input string: \"20ABC\"", thrown.getMessage());
+    }
+}
@@ -0,0 +1,27 @@
+package dashboard;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class GearTest {
+
+    @Test
+    void byValue_everyGearInBothCases_gearFound() {
+        for (Gear gear : Gear.values()) {
+            assertEquals(gear, Gear.byValue(gear.getValue().toUpperCase()));
+            assertEquals(gear, Gear.byValue(gear.getValue().toLowerCase()));
+            assertEquals(gear, Gear.byByte((byte) gear.getValue().charAt(0)));
+        }
+    }
+
+    @Test
+    void byValue_unknownValue_illegalArgumentExceptionThrown() {
+        assertThrows(IllegalArgumentException.class, () -> Gear.byValue(null));
+        assertThrows(IllegalArgumentException.class, () -> Gear.byValue(""));
+        assertThrows(IllegalArgumentException.class, () -> Gear.byValue("DD"));
+        assertThrows(IllegalArgumentException.class, () -> Gear.byChar('7'));
+        assertThrows(IllegalArgumentException.class, () -> Gear.byChar('\u00e9'));
+        assertThrows(IllegalArgumentException.class, () -> Gear.byByte((byte) 0xC4));
+    }
+}
@@ -0,0 +1,77 @@
+package dashboard;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class HistoryBufferTest {
+
+    @Test
+    void snapshot_writerIsRunningConcurrently_everySnapshotIsConsistent() throws InterruptedException {
+        HistoryBuffer historyBuffer = new HistoryBuffer(7);
+        AtomicReference<String> failure = new AtomicReference<>();
+        Thread writer = new Thread(() -> {
+            for (int i = 0; i < 200_000; i++) {
+                DashboardData dashboardData = new DashboardData();
+                dashboardData.setSpeed(i);
+                dashboardData.setGear(Gear.D);
+                historyBuffer.add(dashboardData);
+            }
+        });
+        Thread reader = new Thread(() -> {
+            while (writer.isAlive() && failure.get() == null) {
+                List<DashboardData> snapshot = historyBuffer.snapshot();
+                for (int i = 1; i < snapshot.size(); i++) {
+                    if (snapshot.get(i).getSpeed() != snapshot.get(i - 1).getSpeed() + 1) {
+                        failure.set("Torn snapshot: " + snapshot);
+                    }
+                }
+                DashboardData latest = historyBuffer.readLatest();
+                if (snapshot.size() == 7 && latest != null && latest.getSpeed() < snapshot.get(6).getSpeed()) {
+                    failure.set("Latest value went backwards.");
+                }
+            }
+        });
+
+        writer.start();
+        reader.start();
+        writer.join();
+        reader.join();
+
+        assertNull(failure.get());
+        assertEquals(199_999, historyBuffer.readLatest().getSpeed());
+        assertEquals(7, historyBuffer.snapshot().size());
+    }
+
+    @ParameterizedTest
+    @ValueSource(booleans = {false, true})
+    void rangeQueries_windowWrappedAround_onlyLatestValuesConsidered(boolean offHeap) {
+        HistoryBuffer historyBuffer = new HistoryBuffer(70, offHeap);
+        for (int i = 0; i < 100; i++) {
+            DashboardData dashboardData = DashboardData.fromString(i + "|2000|1.5|D|true|false|true");
+            dashboardData.setLowOilLevel(i % 3 == 0);
+            historyBuffer.add(dashboardData);
+        }
+
+        assertEquals(70, historyBuffer.size());
+        assertEquals(30, historyBuffer.getSpeed(0));
+        assertEquals(99, historyBuffer.latestSpeed());
+        assertEquals(90, historyBuffer.minSpeed(10));
+        assertEquals(99, historyBuffer.maxSpeed(10));
+        assertEquals(94.5, historyBuffer.meanSpeed(10));
+        assertEquals(24, historyBuffer.countLowOilLevel(70));
+        assertEquals(4, historyBuffer.countLowOilLevel(10));
+        assertEquals(Gear.D, historyBuffer.getGear(69));
+        assertEquals(1.5f, historyBuffer.getAcceleration(5));
+        assertEquals(List.of(97, 98, 99), historyBuffer.latestValues(3).stream()
+                .map(DashboardData::getSpeed)
+                .collect(Collectors.toList()));
+        assertEquals(historyBuffer.latest().toString(), historyBuffer.readLatest().toString());
+    }
+}
@@ -0,0 +1,162 @@
+package dashboard;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.StandardProtocolFamily;
+import java.net.UnixDomainSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.BooleanSupplier;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class IngestionServerTest {
+
+    private static final Duration TIMEOUT = Duration.ofSeconds(10);
+
+    @Test
+    void textProtocol_framesSplitAcrossWrites_everyFrameProcessedInOrder() throws IOException {
+        List<CarDisplay> displays = new CopyOnWriteArrayList<>();
+        IngestionServer server = new IngestionServer(
+                new InetSocketAddress(InetAddress.getLoopbackAddress(), 0),
+                IngestionServer.Protocol.TEXT,
+                () -> {
+                    CarDisplay display = new CarDisplay(true, 5, dashboardData -> { });
+                    displays.add(display);
+                    return display;
+                }
+        );
+
+        try (SocketChannel client = SocketChannel.open(server.getLocalAddress())) {
+            write(client, "10|2000|1.13|D|true|false|true\n12|2100|1.");
+            write(client, "2|D|true|false|true\r\n120|2283|1.3|D|true|false|true\n");
+            write(client, "15|2340|1.4|D|true|false|true");
+        }
+
+        awaitAcceptedConnection(server);
+        assertTrue(server.shutdown(Duration.ofSeconds(5)));
+        assertEquals(1, displays.size());
+        assertEquals(List.of(10, 12, 15), speeds(displays.get(0)));
+        assertEquals(3, server.getAcceptedFrameCount());
+        assertEquals(1, server.getRejectedFrameCount());
+        assertEquals(1, server.getAcceptedConnectionCount());
+        assertEquals(0, server.getActiveConnectionCount());
+    }
+
+    @Test
+    void binaryProtocol_unixDomainSocket_everyFrameProcessed(@TempDir Path directory) throws IOException {
+        List<CarDisplay> displays = new CopyOnWriteArrayList<>();
+        UnixDomainSocketAddress address = UnixDomainSocketAddress.of(directory.resolve("ingestion.sock"));
+        IngestionServer server = new IngestionServer(
+                address,
+                IngestionServer.Protocol.BINARY,
+                () -> {
+                    CarDisplay display = new CarDisplay(true, 5, dashboardData -> { });
+                    displays.add(display);
+                    return display;
+                }
+        );
+
+        ByteBuffer frames = ByteBuffer.allocate(3 * BinaryFrameCodec.FRAME_LENGTH + 5);
+        BinaryFrameCodec.encode(DashboardData.fromString("10|2000|1.13|D|true|false|true"), frames);
+        BinaryFrameCodec.encode(DashboardData.fromString("12|2100|1.2|D|true|false|true"), frames);
+        BinaryFrameCodec.encode(DashboardData.fromString("15|2340|1.4|D|true|false|true"), frames);
+        frames.flip();
+        try (SocketChannel client = SocketChannel.open(StandardProtocolFamily.UNIX)) {
+            client.connect(address);
+            while (frames.hasRemaining()) {
+                client.write(frames);
+            }
+            // a truncated frame
+            client.write(ByteBuffer.allocate(5));
+        }
+
+        awaitAcceptedConnection(server);
+        assertTrue(server.shutdown(Duration.ofSeconds(5)));
+        assertEquals(1, displays.size());
+        assertEquals(List.of(10, 12, 15), speeds(displays.get(0)));
+        assertEquals(1, server.getProtocolErrorCount());
+        assertFalse(directory.resolve("ingestion.sock").toFile().exists());
+    }
+
+    @Test
+    void shutdown_connectionIsNotClosedBySender_connectionClosedAfterTimeout() throws IOException {
+        IngestionServer server = new IngestionServer(
+                new InetSocketAddress(InetAddress.getLoopbackAddress(), 0),
+                IngestionServer.Protocol.TEXT,
+                () -> new CarDisplay(true, 5, dashboardData -> { })
+        );
+
+        try (SocketChannel client = SocketChannel.open(server.getLocalAddress())) {
+            write(client, "10|2000|1.13|D|true|false|true\n");
+            await(() -> server.getAcceptedFrameCount() > 0, "No frame has been accepted.");
+
+            assertFalse(server.shutdown(Duration.ofMillis(100)));
+            assertEquals(0, server.getActiveConnectionCount());
+            assertEquals(-1, client.read(ByteBuffer.allocate(1)));
+        }
+    }
+
+    @Test
+    void constructor_defaultLimit_matchesThreadsOfRuntime() throws IOException {
+        IngestionServer server = new IngestionServer(
+                new InetSocketAddress(InetAddress.getLoopbackAddress(), 0),
+                IngestionServer.Protocol.TEXT,
+                () -> new CarDisplay(true, 5, dashboardData -> { })
+        );
+
+        try {
+            // the build on Java 21 runs these tests on virtual threads
+            assertEquals(Runtime.version().feature() >= 21, server.isVirtualThreadPerConnection());
+            assertEquals(
+                    server.isVirtualThreadPerConnection() ?
+                            IngestionServer.DEFAULT_MAX_CONNECTIONS :
+                            IngestionServer.DEFAULT_MAX_PLATFORM_THREAD_CONNECTIONS,
+                    server.getMaxConnections()
+            );
+        } finally {
+            server.close();
+        }
+    }
+
+    /**
+     * Shutting down refuses the connections still waiting in the backlog.
+     */
+    private static void awaitAcceptedConnection(IngestionServer server) {
+        await(() -> server.getAcceptedConnectionCount() > 0, "No connection has been accepted.");
+    }
+
+    /**
+     * Waits for a condition, failing the test instead of hanging the build if it does not hold in time.
+     */
+    private static void await(BooleanSupplier condition, String message) {
+        long deadline = System.nanoTime() + TIMEOUT.toNanos();
+        while (!condition.getAsBoolean()) {
+            if (System.nanoTime() - deadline > 0) {
+                fail(message);
+            }
+            Thread.onSpinWait();
+        }
+    }
+
+    private static List<Integer> speeds(CarDisplay display) {
+        return display.getHistorySnapshot().stream().map(DashboardData::getSpeed).collect(Collectors.toList());
+    }
+
+    private static void write(SocketChannel channel, String text) throws IOException {
+        ByteBuffer buffer = ByteBuffer.wrap(text.getBytes(StandardCharsets.ISO_8859_1));
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+    }
+}
@@ -0,0 +1,82 @@
+package dashboard;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class LazyDashboardDataTest {
+
+    @ParameterizedTest
+    @ValueSource(strings = {"10|2000|1.13|D|true|false|true", "0|800|0|p|TRUE|yes|False", "10|2000|1.13|D|true|false|true|",
+            "10|2000|1.13|D|true|false|true||", "10|2000|1.13|D|true|false", "10|2000|1.13|D|true|false|true|x", "",
+            "|||||||", "10ABC|2000|1.13|D|true|false|true", "10|2000|fast|D|true|false|true", "10|2000|1.13|DD|true|false|true",
+            "10|2000|1.13||true|false|true", "1e1|2000|1e1|R|||", "-5|+800|-.5|r|true|true|"})
+    void getters_behaveLikeFromString(String frame) {
+        DashboardData expected;
+        try {
+            expected = DashboardData.fromString(frame);
+        } catch (RuntimeException e) {
+            RuntimeException thrown = assertThrows(RuntimeException.class, () -> {
+                LazyDashboardData dashboardData = LazyDashboardData.of(frame);
+                dashboardData.toFrameString();
+            });
+            assertEquals(e.getClass(), thrown.getClass());
+            assertEquals(e.getMessage(), thrown.getMessage());
+            return;
+        }
+        LazyDashboardData dashboardData = LazyDashboardData.of(frame);
+        assertEquals(expected.toString(), dashboardData.toString());
+    }
+
+    @Test
+    void getSpeed_otherFieldsMalformed_onlySpeedDecoded() {
+        LazyDashboardData dashboardData = LazyDashboardData.of("42|fast|slow|X|true|false|true");
+
+        assertEquals(42, dashboardData.getSpeed());
+        assertTrue(dashboardData.isEngineStarted());
+        assertThrows(NumberFormatException.class, dashboardData::getRpm);
+        assertThrows(NumberFormatException.class, dashboardData::getAcceleration);
+        assertThrows(IllegalArgumentException.class, dashboardData::getGear);
+    }
+
+    @Test
+    void wrap_bytesReused_latestFrameDecoded() {
+        LazyDashboardData dashboardData = new LazyDashboardData();
+        byte[] frame = "10|2000|1.13|D|true|false|true".getBytes(StandardCharsets.US_ASCII);
+        byte[] other = "xx|12|2100|1.2|R|false|true|false".getBytes(StandardCharsets.US_ASCII);
+
+        dashboardData.wrap(frame, 0, frame.length);
+        assertEquals(10, dashboardData.getSpeed());
+        dashboardData.wrap(other, 3, other.length - 3);
+
+        assertEquals(12, dashboardData.getSpeed());
+        assertEquals(Gear.R, dashboardData.getGear());
+        assertTrue(dashboardData.isLowOilLevel());
+        assertThrows(IllegalArgumentException.class, () -> dashboardData.wrap(frame, 0, 5));
+    }
+
+    @Test
+    void setSpeed_wrappedFrame_valueOverridden() {
+        LazyDashboardData dashboardData = LazyDashboardData.of("10|2000|1.13|D|true|false|true");
+
+        dashboardData.setSpeed(20);
+
+        assertEquals("20|2000|1.13|D|true|false|true", dashboardData.toFrameString());
+    }
+
+    @Test
+    void tryCarDashboard_lazyValues_sameOutcomeAsParsedValues() {
+        CarDisplay carDisplay = new CarDisplay(true, 5, dashboardData -> { });
+
+        assertEquals(ValidationRule.NONE, carDisplay.tryCarDashboard(LazyDashboardData.of("10|2000|1.13|D|true|false|true")));
+        assertEquals(
+                carDisplay.validate(DashboardData.fromString("120|2283|1.3|D|true|false|true")),
+                carDisplay.tryCarDashboard(LazyDashboardData.of("120|2283|1.3|D|true|false|true"))
+        );
+        assertEquals(10, carDisplay.getHistoricalValues().get(0).getSpeed());
+    }
+}
@@ -0,0 +1,40 @@
+package dashboard;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class RollingStatisticsTest {
+
+    @Test
+    void add_windowSlidesOverRandomValues_sameStatisticsAsRecomputedWindow() {
+        int length = 7;
+        RollingStatistics statistics = new RollingStatistics();
+        double[] values = new Random(42).doubles(200, -50, 150).toArray();
+
+        for (int i = 0; i < values.length; i++) {
+            if (i < length) {
+                statistics.add(values[i]);
+            } else {
+                statistics.replace(values[i - length], values[i]);
+            }
+
+            double[] window = Arrays.copyOfRange(values, Math.max(0, i - length + 1), i + 1);
+            double mean = Arrays.stream(window).average().orElseThrow();
+            double variance = Arrays.stream(window).map(value -> (value - mean) * (value - mean)).sum() / window.length;
+            assertEquals(window.length, statistics.getCount());
+            assertEquals(mean, statistics.getMean(), 1e-9);
+            assertEquals(variance, statistics.getVariance(), 1e-9);
+        }
+    }
+
+    @Test
+    void getVariance_windowIsEmpty_zero() {
+        RollingStatistics statistics = new RollingStatistics();
+        assertEquals(0, statistics.getMean());
+        assertEquals(0, statistics.getVariance());
+    }
+}
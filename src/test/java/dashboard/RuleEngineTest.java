@@ -0,0 +1,186 @@
+package dashboard;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Properties;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class RuleEngineTest {
+
+    @Test
+    void evaluate_profileLimitsDriveGearHigher_speedAcceptedOnlyByCustomProfile() throws IOException {
+        VehicleProfile profile = VehicleProfile.load(new ByteArrayInputStream((
+                "gear.2.speed.highest=130\n" +
+                "gear.2.rpm.highest=6000\n"
+        ).getBytes(StandardCharsets.ISO_8859_1)));
+        DashboardData dashboardData = DashboardData.fromString("120|5800|2.5|2|true|false|true");
+
+        assertEquals(ValidationRule.NONE, new RuleEngine(profile, false).evaluate(dashboardData));
+        assertTrue(ValidationRule.SPEED_OUT_OF_GEAR_RANGE.isViolated(RuleEngine.defaultRules(false).evaluate(dashboardData)));
+    }
+
+    @Test
+    void evaluate_gearNotApplicableInProfile_violationReported() {
+        Properties properties = new Properties();
+        properties.setProperty("gear.D.automatic", "false");
+        RuleEngine ruleEngine = new RuleEngine(VehicleProfile.fromProperties(properties), true);
+
+        int violations = ruleEngine.evaluate(DashboardData.fromString("100|3200|2.3|D|true|false|true"));
+
+        assertEquals(ValidationRule.GEAR_NOT_APPLICABLE_TO_TRANSMISSION.getMask(), violations);
+    }
+
+    @Test
+    void evaluateAgainstHistory_profileAllowsLargerDelta_speedAccepted() {
+        Properties properties = new Properties();
+        properties.setProperty("speed.maxDelta", "20");
+        RuleEngine ruleEngine = new RuleEngine(VehicleProfile.fromProperties(properties), true);
+
+        assertEquals(ValidationRule.NONE, ruleEngine.evaluateAgainstHistory(
+                DashboardData.fromString("30|2000|1.13|D|true|false|true"),
+                history("10|2000|1.13|D|true|false|true")
+        ));
+    }
+
+    @Test
+    void evaluateAgainstHistory_hardBrakingExplainedByDeceleration_speedAccepted() {
+        RuleEngine ruleEngine = RuleEngine.defaultRules(true);
+        HistoryBuffer history = history(
+                "100|3000|0.0|D|true|false|true",
+                "91|2800|-10.0|D|true|false|true"
+        );
+
+        assertEquals(ValidationRule.NONE, ruleEngine.evaluateAgainstHistory(
+                DashboardData.fromString("73|2400|-10.0|D|true|false|true"),
+                history
+        ));
+        assertEquals(ValidationRule.OUTLIER_SPEED.getMask(), ruleEngine.evaluateAgainstHistory(
+                DashboardData.fromString("55|2000|-10.0|D|true|false|true"),
+                history
+        ));
+    }
+
+    @Test
+    void evaluateAgainstHistory_slowDriftWithoutAcceleration_outlierReported() {
+        RuleEngine ruleEngine = RuleEngine.defaultRules(true);
+        HistoryBuffer history = history(
+                "100|3000|0.0|D|true|false|true",
+                "104|3000|0.0|D|true|false|true"
+        );
+
+        assertEquals(ValidationRule.NONE, ruleEngine.evaluateAgainstHistory(
+                DashboardData.fromString("104|3000|0.0|D|true|false|true"),
+                history
+        ));
+        assertEquals(ValidationRule.OUTLIER_SPEED.getMask(), ruleEngine.evaluateAgainstHistory(
+                DashboardData.fromString("108|3000|0.0|D|true|false|true"),
+                history
+        ));
+    }
+
+    @Test
+    void evaluateColumns_randomFrames_sameViolationsAsEvaluate() {
+        Random random = new Random(42);
+        Gear[] gears = Gear.values();
+        FrameColumns frames = new FrameColumns(3000);
+        for (int i = 0; i < frames.capacity(); i++) {
+            DashboardData dashboardData = new DashboardData();
+            dashboardData.setSpeed(random.nextInt(420) - 40);
+            dashboardData.setRpm(random.nextInt(9000));
+            dashboardData.setAcceleration(random.nextInt(50) == 0 ? Float.NaN : (random.nextFloat() - 0.5f) * 10);
+            dashboardData.setGear(gears[random.nextInt(gears.length)]);
+            dashboardData.setEngineStarted(random.nextInt(10) != 0);
+            frames.add(dashboardData);
+        }
+
+        for (boolean automaticTransmission : new boolean[] {true, false}) {
+            RuleEngine ruleEngine = RuleEngine.defaultRules(automaticTransmission);
+            int[] violations = new int[frames.size()];
+            int invalid = ruleEngine.evaluate(frames, 0, frames.size(), violations);
+
+            int expectedInvalid = 0;
+            for (int i = 0; i < frames.size(); i++) {
+                int expected = ruleEngine.evaluate(frames.get(i));
+                assertEquals(expected, violations[i], "Frame " + i);
+                expectedInvalid += expected != ValidationRule.NONE ? 1 : 0;
+            }
+            assertEquals(expectedInvalid, invalid);
+        }
+    }
+
+    @Test
+    void evaluateColumns_range_onlyRangeWritten() {
+        FrameColumns frames = new FrameColumns(4);
+        ByteBuffer buffer = ByteBuffer.allocate(4 * BinaryFrameCodec.FRAME_LENGTH);
+        for (String frame : new String[] {
+                "10|2000|1.13|D|true|false|true",
+                "351|9000|0.2|1|true|false|false",
+                "20|3200|2.3|D|true|false|false",
+                "12|2100|1.2|D|true|false|true"
+        }) {
+            BinaryFrameCodec.encode(DashboardData.fromString(frame), buffer);
+        }
+        frames.addBinary(buffer.flip());
+        int[] violations = {-1, -1, -1, -1};
+
+        int invalid = RuleEngine.defaultRules(true).evaluate(frames, 1, 3, violations);
+
+        assertEquals(2, invalid);
+        assertEquals(-1, violations[0]);
+        assertTrue(ValidationRule.SPEED_OUT_OF_RANGE.isViolated(violations[1]));
+        assertEquals(ValidationRule.ENGINE_NOT_RUNNING.getMask(), violations[2]);
+        assertEquals(-1, violations[3]);
+        assertThrows(IndexOutOfBoundsException.class,
+                () -> RuleEngine.defaultRules(true).evaluate(frames, 0, 5, new int[5]));
+    }
+
+    @Test
+    void fromProperties_invalidProfile_illegalArgumentExceptionThrown() {
+        Properties properties = new Properties();
+        properties.setProperty("gear.3.rpm.lowest", "9000");
+        IllegalArgumentException thrown = assertThrows(
+                IllegalArgumentException.class,
+                () -> VehicleProfile.fromProperties(properties)
+        );
+        assertEquals("The lowest value of 'gear.3.rpm' is higher than the highest one.", thrown.getMessage());
+
+        properties.setProperty("gear.3.rpm.lowest", "fast");
+        assertThrows(IllegalArgumentException.class, () -> VehicleProfile.fromProperties(properties));
+    }
+
+    @Test
+    void defaultProfile_sameLimitsAsEmptyProperties() {
+        VehicleProfile defaults = VehicleProfile.defaultProfile();
+        VehicleProfile loaded = VehicleProfile.fromProperties(new Properties());
+
+        assertEquals(loaded.getLowestSpeed(), defaults.getLowestSpeed());
+        assertEquals(loaded.getHighestSpeed(), defaults.getHighestSpeed());
+        assertEquals(loaded.getMaxAllowedDeltaSpeed(), defaults.getMaxAllowedDeltaSpeed());
+        assertEquals(loaded.getMaxDrift(), defaults.getMaxDrift());
+        assertEquals(loaded.getSpeedPerAcceleration(), defaults.getSpeedPerAcceleration());
+        assertEquals(loaded.getDeviationFactor(), defaults.getDeviationFactor());
+        assertEquals(loaded.getNotableAcceleration(), defaults.getNotableAcceleration());
+        for (Gear gear : Gear.values()) {
+            assertEquals(loaded.isApplicableToAutomatic(gear), defaults.isApplicableToAutomatic(gear));
+            assertEquals(loaded.isApplicableToManual(gear), defaults.isApplicableToManual(gear));
+            assertEquals(loaded.getLowestSpeed(gear), defaults.getLowestSpeed(gear));
+            assertEquals(loaded.getHighestSpeed(gear), defaults.getHighestSpeed(gear));
+            assertEquals(loaded.getLowestRpm(gear), defaults.getLowestRpm(gear));
+            assertEquals(loaded.getHighestRpm(gear), defaults.getHighestRpm(gear));
+        }
+    }
+
+    private static HistoryBuffer history(String... frames) {
+        HistoryBuffer history = new HistoryBuffer(CarDisplay.DEFAULT_HISTORY_MOVING_WINDOW_LENGTH);
+        for (String frame : frames) {
+            history.add(DashboardData.fromString(frame));
+        }
+        return history;
+    }
+}
@@ -0,0 +1,96 @@
+package dashboard;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TelemetryRecorderTest {
+
+    private static final DisplaySink NO_DISPLAY = dashboardData -> { };
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void replay_recordedSession_sameOutcomeAndHistory() throws IOException {
+        int segmentSize = TelemetryRecorder.HEADER_LENGTH + 2 * TelemetryRecorder.RECORD_LENGTH;
+        CarDisplay recordingCarDisplay;
+        try (TelemetryRecorder recorder = new TelemetryRecorder(directory, segmentSize)) {
+            recordingCarDisplay = new CarDisplay(RuleEngine.defaultRules(true), 5, NO_DISPLAY, recorder);
+            recordingCarDisplay.tryCarDashboard("10|2000|1.13|D|true|false|true");
+            recordingCarDisplay.tryCarDashboard("12|2100|1.2|D|true|false|true");
+            recordingCarDisplay.tryCarDashboard("120|2283|1.3|D|true|false|true");
+            recordingCarDisplay.tryCarDashboard("40000|2283|1.3|D|true|false|true");
+            recordingCarDisplay.tryCarDashboard("15|2340|1.4|D|true|false|true");
+
+            assertEquals(4, recorder.getRecordedCount());
+            assertEquals(1, recorder.getSkippedCount());
+        }
+        assertEquals(2, TelemetryRecorder.listSegments(directory).size());
+
+        CarDisplay replayingCarDisplay = new CarDisplay(true, 5, NO_DISPLAY);
+        ReplayResult result = new TelemetryReplayer(directory, true).replay(replayingCarDisplay);
+
+        assertEquals(4, result.getFrameCount());
+        assertEquals(3, result.getAcceptedCount());
+        assertEquals(1, result.getRejectedCount());
+        assertEquals(0, result.getDifferingCount());
+        assertEquals(speeds(recordingCarDisplay), speeds(replayingCarDisplay));
+    }
+
+    @Test
+    void replay_rulesChangedSinceRecording_differingOutcomesCounted() throws IOException {
+        try (TelemetryRecorder recorder = new TelemetryRecorder(directory)) {
+            CarDisplay carDisplay = new CarDisplay(RuleEngine.defaultRules(true), 5, NO_DISPLAY, recorder);
+            carDisplay.tryCarDashboard("10|2000|1.13|D|true|false|true");
+            carDisplay.tryCarDashboard("12|2100|1.2|2|true|false|true");
+        }
+
+        ReplayResult result = new TelemetryReplayer(directory, false).replay(new CarDisplay(false, 5, NO_DISPLAY));
+
+        assertEquals(2, result.getFrameCount());
+        assertEquals(1, result.getAcceptedCount());
+        assertEquals(1, result.getDifferingCount());
+    }
+
+    @Test
+    void new_oldestSegmentsDeleted_recordingContinuesAfterLatestSegment() throws IOException {
+        int segmentSize = TelemetryRecorder.HEADER_LENGTH + TelemetryRecorder.RECORD_LENGTH;
+        try (TelemetryRecorder recorder = new TelemetryRecorder(directory, segmentSize)) {
+            CarDisplay carDisplay = new CarDisplay(RuleEngine.defaultRules(true), 5, NO_DISPLAY, recorder);
+            carDisplay.tryCarDashboard("10|2000|1.13|D|true|false|true");
+            carDisplay.tryCarDashboard("12|2100|1.2|D|true|false|true");
+            carDisplay.tryCarDashboard("15|2340|1.4|D|true|false|true");
+        }
+        List<Path> segments = TelemetryRecorder.listSegments(directory);
+        assertEquals(3, segments.size());
+        Files.delete(segments.get(0));
+        Files.delete(segments.get(1));
+
+        try (TelemetryRecorder recorder = new TelemetryRecorder(directory, segmentSize)) {
+            CarDisplay carDisplay = new CarDisplay(RuleEngine.defaultRules(true), 5, NO_DISPLAY, recorder);
+            carDisplay.tryCarDashboard("16|2360|1.42|D|true|false|true");
+            carDisplay.tryCarDashboard("20|2120|1.25|D|true|false|true");
+        }
+
+        assertEquals(List.of("telemetry-00000002.log", "telemetry-00000003.log", "telemetry-00000004.log"),
+                TelemetryRecorder.listSegments(directory).stream()
+                        .map(segment -> segment.getFileName().toString())
+                        .collect(Collectors.toList()));
+        ReplayResult result = new TelemetryReplayer(directory, true).replay(new CarDisplay(true, 5, NO_DISPLAY));
+        assertEquals(3, result.getFrameCount());
+    }
+
+    private static List<Integer> speeds(CarDisplay carDisplay) {
+        return carDisplay.getHistoricalValues().stream()
+                .map(DashboardData::getSpeed)
+                .collect(Collectors.toList());
+    }
+}